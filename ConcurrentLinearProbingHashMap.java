@@ -0,0 +1,683 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A thread-safe hash map with open addressing and linear probing, for maps
+ * shared across threads that would otherwise wrap a LinearProbingHashMap in
+ * one global lock.
+ *
+ * The table is a power of two array of nodes, indexed with
+ * PowerOfTwoHashMap.spread. A node's key never changes, and its value is
+ * volatile, with null meaning the key has been removed. Slots are read with
+ * acquire semantics through a VarHandle, so get never locks. A new key claims
+ * an empty slot with a compare-and-set, and values are replaced or removed
+ * with a compare-and-set on the node, so writers do not block each other
+ * either. Once a key has a slot it keeps it until the next resize, and a
+ * removed key that is put back revives its old node. The size is a LongAdder,
+ * so the only counter all writers share is the count of used slots, which
+ * only a key taking a new slot touches.
+ *
+ * A resize is done by every thread that runs into it. The first writer to
+ * find the table full attaches a Forward to it, which holds the new table,
+ * and the threads that see it claim the old slots TRANSFER_STRIDE at a
+ * time. An empty slot is moved by swapping the Forward into it, and a
+ * removed key by swapping the Forward into its node's value, both with a
+ * compare-and-set, so no key can be added or revived behind the resize. A
+ * live node is copied into the new table as it is: the same node is then in
+ * both tables, and any change to its value shows in both. A writer that
+ * meets the Forward helps move the slots that are left, waits for any still
+ * being moved by others, and then retries on the new table, since the keys
+ * it probed past might not have been moved yet. Readers never wait: the old
+ * table stays valid for them, and they only follow the Forward to the new
+ * table where it ends their probe. clear is a resize into an empty table
+ * that moves no nodes.
+ *
+ * computeIfAbsent is atomic per key: callers for keys in the same stripe
+ * are serialized by one of STRIPES locks, so the mapping function runs at
+ * most once for an absent key, while other keys go ahead in parallel.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class ConcurrentLinearProbingHashMap<K, V> {
+
+    /**
+     * The initial capacity of the map when created with the default
+     * constructor.
+     */
+    public static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The max load factor of the map, counting the slots of removed keys.
+     */
+    public static final double MAX_LOAD_FACTOR = 0.67;
+
+    /**
+     * The number of locks computeIfAbsent is striped over.
+     */
+    private static final int STRIPES = 64;
+
+    /**
+     * The number of old slots a thread claims at a time during a resize.
+     */
+    private static final int TRANSFER_STRIDE = 256;
+
+    /**
+     * Returned by tryPut when the table has no room left for a new key.
+     */
+    private static final Object RESIZE = new Object();
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle VALUE;
+    private static final VarHandle FORWARD;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(Node.class, "value", Object.class);
+            FORWARD = MethodHandles.lookup().findVarHandle(Table.class, "forward", Forward.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Table table;
+    private final LongAdder size = new LongAdder();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    /**
+     * Constructs a new ConcurrentLinearProbingHashMap with a capacity of
+     * INITIAL_CAPACITY.
+     */
+    public ConcurrentLinearProbingHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new ConcurrentLinearProbingHashMap whose table has the
+     * smallest power of two length of at least initialCapacity.
+     *
+     * @param initialCapacity the least initial capacity of the table
+     * @throws java.lang.IllegalArgumentException if initialCapacity is not
+     *                                            positive or above 2^30
+     */
+    public ConcurrentLinearProbingHashMap(int initialCapacity) {
+        if (initialCapacity < 1 || initialCapacity > 1 << 30) {
+            throw new IllegalArgumentException("the initial capacity is out of range");
+        }
+        table = new Table(Math.max(2, Integer.highestOneBit(initialCapacity - 1) << 1));
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If the map already has this
+     * key, its value is replaced with the new one.
+     *
+     * @param key   the key to add
+     * @param value the value to add
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     * @throws java.lang.IllegalArgumentException if key or value is null
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("either the key or the value is null");
+        }
+        return putHelp(key, value, false);
+    }
+
+    /**
+     * Adds the given key-value pair to the map only if the key is not
+     * already in it, as one atomic step.
+     *
+     * @param key   the key to add
+     * @param value the value to add
+     * @return null if the pair was added, or else the value already
+     * associated with the key
+     * @throws java.lang.IllegalArgumentException if key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("either the key or the value is null");
+        }
+        return putHelp(key, value, true);
+    }
+
+    /**
+     * Gets the value associated with the given key, or computes it with
+     * mappingFunction and adds it if there is none. The whole call is atomic
+     * with respect to other computeIfAbsent calls on the same key, so the
+     * function runs at most once for each absent key. A plain put that races
+     * with it wins, and its value is returned. The function must not update
+     * this map.
+     *
+     * @param key             the key to search for in the map
+     * @param mappingFunction computes a value for an absent key; if it
+     *                        returns null, nothing is added
+     * @return the value now associated with the key, or null if the function
+     * returned null
+     * @throws java.lang.IllegalArgumentException if key or mappingFunction is
+     *                                            null
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null || mappingFunction == null) {
+            throw new IllegalArgumentException("either the key or the mapping function is null");
+        }
+        int hash = PowerOfTwoHashMap.spread(key.hashCode());
+        V value = find(table, key, hash);
+        if (value != null) {
+            return value;
+        }
+        ReentrantLock stripe = stripes[(hash >>> 16) & (STRIPES - 1)];
+        stripe.lock();
+        try {
+            value = find(table, key, hash);
+            if (value != null) {
+                return value;
+            }
+            V computed = mappingFunction.apply(key);
+            if (computed == null) {
+                return null;
+            }
+            V previous = putHelp(key, computed, true);
+            return previous == null ? computed : previous;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Gets the value associated with the given key. It never locks or
+     * waits, even during a resize.
+     *
+     * @param key the key to search for in the map
+     * @return the value associated with the given key
+     * @throws java.lang.IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException   if the key is not in the map
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null");
+        }
+        V value = find(table, key, PowerOfTwoHashMap.spread(key.hashCode()));
+        if (value == null) {
+            throw new java.util.NoSuchElementException("the key is not in the map");
+        }
+        return value;
+    }
+
+    /**
+     * Returns whether or not the key is in the map. It never locks or waits,
+     * even during a resize.
+     *
+     * @param key the key to search for in the map
+     * @return true if the key is contained within the map, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if key is null
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null");
+        }
+        return find(table, key, PowerOfTwoHashMap.spread(key.hashCode())) != null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @return the value previously associated with the key
+     * @throws java.lang.IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException   if the key is not in the map
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null, cannot remove it");
+        }
+        int hash = PowerOfTwoHashMap.spread(key.hashCode());
+        while (true) {
+            Table tab = table;
+            Object result = tryRemove(tab, key, hash);
+            if (result instanceof Forward) {
+                helpResize();
+            } else if (result == null) {
+                throw new java.util.NoSuchElementException("the key is not in the map");
+            } else {
+                return (V) result;
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the keys in the map. Changes made while it is
+     * being taken may or may not be in it.
+     *
+     * @return the set of keys in this map
+     */
+    public Set<K> keySet() {
+        HashSet<K> keys = new HashSet<>();
+        for (Object slot : table.slots) {
+            if (slot instanceof Node && isLive(((Node<K, V>) slot).value)) {
+                keys.add(((Node<K, V>) slot).key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a snapshot of the values in the map, in order of increasing
+     * index in the table. Changes made while it is being taken may or may not
+     * be in it.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        ArrayList<V> values = new ArrayList<>();
+        for (Object slot : table.slots) {
+            if (slot instanceof Node) {
+                Object value = ((Node<K, V>) slot).value;
+                if (isLive(value)) {
+                    values.add((V) value);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Clears the map, going back to the INITIAL_CAPACITY. Any resize in
+     * progress is finished first.
+     */
+    public void clear() {
+        while (true) {
+            Table tab = table;
+            Forward forward = tab.forward;
+            if (forward == null) {
+                Forward clearing = new Forward(new Table(INITIAL_CAPACITY), true);
+                if (FORWARD.compareAndSet(tab, null, clearing)) {
+                    transfer(tab, clearing);
+                    return;
+                }
+                forward = tab.forward;
+            }
+            transfer(tab, forward);
+        }
+    }
+
+    /**
+     * Returns the size of the map. It is exact when no writes are in flight.
+     *
+     * @return the size of the map
+     */
+    public int size() {
+        return (int) Math.max(0, size.sum());
+    }
+
+    /**
+     * Returns the length of the current table.
+     *
+     * @return the capacity of the map
+     */
+    public int capacity() {
+        return table.slots.length;
+    }
+
+    /**
+     * this helper method implements put and putIfAbsent, helping with any
+     * resize it runs into and retrying on the new table
+     * @param key the key to add
+     * @param value the value to add
+     * @param onlyIfAbsent whether an existing value is left alone
+     * @return the previous value of the key, or null if it had none
+     */
+    private V putHelp(K key, V value, boolean onlyIfAbsent) {
+        int hash = PowerOfTwoHashMap.spread(key.hashCode());
+        while (true) {
+            Table tab = table;
+            Object result = tryPut(tab, key, hash, value, onlyIfAbsent);
+            if (result instanceof Forward) {
+                helpResize();
+            } else if (result == RESIZE) {
+                startResize(tab);
+            } else {
+                return (V) result;
+            }
+        }
+    }
+
+    /**
+     * this helper method adds a pair to tab; a new key reserves room in the
+     * table before claiming an empty slot with a compare-and-set
+     * @param tab the table to add to
+     * @param key the key to add
+     * @param hash the spread hash of the key
+     * @param value the value to add
+     * @param onlyIfAbsent whether an existing value is left alone
+     * @return the previous value of the key, null if it had none, RESIZE if
+     * the table is too full to take a new key, or the Forward of tab if the
+     * probe ran into a resize
+     */
+    private Object tryPut(Table tab, K key, int hash, V value, boolean onlyIfAbsent) {
+        Object[] slots = tab.slots;
+        int mask = slots.length - 1;
+        int idx = hash & mask;
+        while (true) {
+            Object slot = SLOTS.getAcquire(slots, idx);
+            if (slot == null) {
+                if (tab.used.incrementAndGet() > tab.threshold) {
+                    tab.used.decrementAndGet();
+                    return RESIZE;
+                }
+                if (SLOTS.compareAndSet(slots, idx, null, new Node<>(key, hash, value))) {
+                    size.increment();
+                    return null;
+                }
+                // another writer or a resize took the slot first; look at what is there now
+                tab.used.decrementAndGet();
+                slot = SLOTS.getAcquire(slots, idx);
+            }
+            if (slot instanceof Forward) {
+                return slot;
+            }
+            Node<K, V> node = (Node<K, V>) slot;
+            if (node.hash == hash && node.key.equals(key)) {
+                while (true) {
+                    Object current = node.value;
+                    if (current instanceof Forward) {
+                        return current;
+                    } else if (current == null) {
+                        if (VALUE.compareAndSet(node, null, value)) {
+                            size.increment();
+                            return null;
+                        }
+                    } else if (onlyIfAbsent) {
+                        return current;
+                    } else if (VALUE.compareAndSet(node, current, value)) {
+                        return current;
+                    }
+                }
+            }
+            idx = (idx + 1) & mask;
+        }
+    }
+
+    /**
+     * this helper method removes a key from tab by clearing its node's value
+     * @param tab the table to remove from
+     * @param key the key to remove
+     * @param hash the spread hash of the key
+     * @return the removed value, null if the key is not in tab, or the
+     * Forward of tab if the probe ran into a resize
+     */
+    private Object tryRemove(Table tab, K key, int hash) {
+        Object[] slots = tab.slots;
+        int mask = slots.length - 1;
+        int idx = hash & mask;
+        while (true) {
+            Object slot = SLOTS.getAcquire(slots, idx);
+            if (slot == null || slot instanceof Forward) {
+                return slot;
+            }
+            Node<K, V> node = (Node<K, V>) slot;
+            if (node.hash == hash && node.key.equals(key)) {
+                while (true) {
+                    Object current = node.value;
+                    if (current == null || current instanceof Forward) {
+                        return current;
+                    }
+                    if (VALUE.compareAndSet(node, current, null)) {
+                        size.decrement();
+                        return current;
+                    }
+                }
+            }
+            idx = (idx + 1) & mask;
+        }
+    }
+
+    /**
+     * this helper method finds the live value of a key without locking or
+     * waiting. A probe that ends at a moved empty slot, or at the key's
+     * removed node after it was moved, goes on in the next table, where the
+     * key may have been added since
+     * @param tab the table to search first
+     * @param key the key to search for
+     * @param hash the spread hash of the key
+     * @return the value of the key, or null if it is not in the map
+     */
+    private V find(Table tab, K key, int hash) {
+        while (true) {
+            Object[] slots = tab.slots;
+            int mask = slots.length - 1;
+            int idx = hash & mask;
+            Object next = null;
+            while (next == null) {
+                Object slot = SLOTS.getAcquire(slots, idx);
+                if (slot == null) {
+                    return null;
+                }
+                if (slot instanceof Forward) {
+                    next = slot;
+                } else {
+                    Node<K, V> node = (Node<K, V>) slot;
+                    if (node.hash == hash && node.key.equals(key)) {
+                        Object value = node.value;
+                        if (!(value instanceof Forward)) {
+                            return (V) value;
+                        }
+                        next = value;
+                    }
+                    idx = (idx + 1) & mask;
+                }
+            }
+            tab = ((Forward) next).table;
+        }
+    }
+
+    /**
+     * this helper method helps with the resize of the current table, if it
+     * has one. A writer holding on to an older table can meet the Forward of
+     * a later resize on a node the tables share, so the Forward it met does
+     * not tell which table is being resized; the current table does.
+     */
+    private void helpResize() {
+        Table tab = table;
+        Forward forward = tab.forward;
+        if (forward != null) {
+            transfer(tab, forward);
+        }
+    }
+
+    /**
+     * this helper method attaches a Forward to a full table, unless another
+     * thread already has, and helps with the resize
+     * @param tab the table that was found to be full
+     */
+    private void startResize(Table tab) {
+        Forward forward = tab.forward;
+        if (forward == null) {
+            int live = size();
+            int length = tab.slots.length;
+            while (live + 1 > (int) (length * MAX_LOAD_FACTOR) / 2) {
+                length *= 2;
+            }
+            Forward created = new Forward(new Table(length), false);
+            forward = FORWARD.compareAndSet(tab, null, created) ? created : tab.forward;
+        }
+        transfer(tab, forward);
+    }
+
+    /**
+     * this helper method moves the slots of tab into the table of its
+     * Forward, TRANSFER_STRIDE slots per claim, until none are left to
+     * claim. The thread that finishes the last slot publishes the new table;
+     * the others wait for it, which is only as long as the slots other
+     * threads have claimed take to move.
+     * @param tab the table being resized
+     * @param forward the Forward attached to tab
+     */
+    private void transfer(Table tab, Forward forward) {
+        Object[] slots = tab.slots;
+        int length = slots.length;
+        while (true) {
+            int start = forward.claimed.getAndAdd(TRANSFER_STRIDE);
+            if (start >= length) {
+                break;
+            }
+            int end = Math.min(length, start + TRANSFER_STRIDE);
+            for (int i = start; i < end; i++) {
+                moveSlot(slots, i, forward);
+            }
+            if (forward.moved.addAndGet(end - start) == length) {
+                table = forward.table;
+                return;
+            }
+        }
+        while (table == tab) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * this helper method moves one slot of an old table. An empty slot and
+     * a removed key get the Forward swapped in, which nothing can swap out
+     * again, and a live node is copied into the new table, unless the
+     * Forward is clearing the map, in which case its value is swapped for
+     * the Forward too.
+     * @param slots the slots of the old table
+     * @param idx the index of the slot to move
+     * @param forward the Forward attached to the old table
+     */
+    private void moveSlot(Object[] slots, int idx, Forward forward) {
+        while (true) {
+            Object slot = SLOTS.getAcquire(slots, idx);
+            if (slot == null) {
+                if (SLOTS.compareAndSet(slots, idx, null, forward)) {
+                    return;
+                }
+            } else {
+                Node<K, V> node = (Node<K, V>) slot;
+                Object value = node.value;
+                if (value == null || forward.clearing) {
+                    if (VALUE.compareAndSet(node, value, forward)) {
+                        if (value != null) {
+                            size.decrement();
+                        }
+                        return;
+                    }
+                } else {
+                    copy(forward.table, node);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * this helper method puts a moved node into the first empty slot of its
+     * probe sequence in a new table, which only the threads moving slots
+     * write to until it is published
+     * @param tab the new table
+     * @param node the node to copy
+     */
+    private void copy(Table tab, Node<K, V> node) {
+        Object[] slots = tab.slots;
+        int mask = slots.length - 1;
+        int idx = node.hash & mask;
+        while (!SLOTS.compareAndSet(slots, idx, null, node)) {
+            idx = (idx + 1) & mask;
+        }
+        tab.used.incrementAndGet();
+    }
+
+    /**
+     * this helper method tells whether a node's value is a live value rather
+     * than a removed key or a moved one
+     * @param value the value of a node
+     * @return true if the value belongs to the map
+     */
+    private static boolean isLive(Object value) {
+        return value != null && !(value instanceof Forward);
+    }
+
+    /**
+     * One table: its slots, and the count of used slots that bounds its load.
+     */
+    private static final class Table {
+
+        private final Object[] slots;
+        private final int threshold;
+        private final AtomicInteger used = new AtomicInteger();
+        private volatile Forward forward;
+
+        /**
+         * Creates an empty table.
+         * @param length the number of slots, a power of two
+         */
+        Table(int length) {
+            slots = new Object[length];
+            threshold = (int) (length * MAX_LOAD_FACTOR);
+        }
+    }
+
+    /**
+     * The marker of a table being resized. It is attached to the old table,
+     * swapped into the slots and removed nodes that have been moved, and
+     * points at the table they moved to.
+     */
+    private static final class Forward {
+
+        private final Table table;
+        private final boolean clearing;
+        private final AtomicInteger claimed = new AtomicInteger();
+        private final AtomicInteger moved = new AtomicInteger();
+
+        /**
+         * Creates a Forward.
+         * @param table the new table
+         * @param clearing whether live nodes are dropped rather than moved
+         */
+        Forward(Table table, boolean clearing) {
+            this.table = table;
+            this.clearing = clearing;
+        }
+    }
+
+    /**
+     * One key with its spread hash and its current value, which is null once
+     * the key has been removed, and a Forward once a resize has dropped the
+     * removed key or clear has dropped the key.
+     */
+    private static final class Node<K, V> {
+
+        private final K key;
+        private final int hash;
+        private volatile Object value;
+
+        /**
+         * Creates a node.
+         * @param key the key
+         * @param hash the spread hash of the key
+         * @param value the value
+         */
+        Node(K key, int hash, V value) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+/**
+ * A stress test and scaling harness for ConcurrentLinearProbingHashMap.
+ *
+ * Usage: java ConcurrentLinearProbingHashMapStress [threads] [keys]
+ *
+ * Every check starts from a small table, so the threads keep running into
+ * resizes, and throws an IllegalStateException on the first wrong answer.
+ * The checks are, in order:
+ * a single-threaded run of random operations against java.util.HashMap;
+ * writers on disjoint key ranges, which must all see their own writes and
+ * leave exactly their keys behind; computeIfAbsent from every thread on the
+ * same keys, whose mapping function must run exactly once per key; and
+ * put and remove racing resizes on a few hot keys, while readers check that
+ * keys nobody removes are never missed and every thread keeps growing the
+ * table with keys of its own.
+ *
+ * Last, 1, 2, 4 and so on up to threads writers put, get and remove keys of
+ * their own in one shared map, and the rate of each run is printed in
+ * millions of operations per second. It only shows how writers scale on a
+ * machine with at least that many cores.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class ConcurrentLinearProbingHashMapStress {
+
+    /**
+     * The number of hot keys put and removed by every thread in the racing
+     * check.
+     */
+    private static final int HOT_KEYS = 64;
+
+    /**
+     * The number of keys that are never removed in the racing check.
+     */
+    private static final int STABLE_KEYS = 1024;
+
+    /**
+     * The number of timed rounds per thread count in the scaling run.
+     */
+    private static final int ROUNDS = 5;
+
+    /**
+     * Runs every check and then the scaling run.
+     *
+     * @param args the number of threads and the number of keys per thread,
+     *             both optional
+     */
+    public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int keys = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        sequential(keys);
+        System.out.println("sequential: ok");
+        disjointWriters(threads, keys);
+        System.out.println("disjoint writers: ok");
+        int computed = computeIfAbsentCalls(threads, keys);
+        System.out.printf("computeIfAbsent: ok, %d keys computed once each%n", computed);
+        int capacity = racingResize(threads, keys);
+        System.out.printf("put/remove racing resize: ok, capacity grew to %d%n", capacity);
+
+        System.out.printf("scaling, %d keys per thread, %d cores%n", keys,
+            Runtime.getRuntime().availableProcessors());
+        for (int t = 1; t <= threads; t *= 2) {
+            scaling(t, keys);
+        }
+    }
+
+    /**
+     * Runs random operations on one thread and compares every answer with a
+     * HashMap.
+     *
+     * @param ops the number of operations
+     * @throws java.lang.IllegalStateException if an answer differs
+     */
+    private static void sequential(int ops) {
+        ConcurrentLinearProbingHashMap<Integer, Integer> map = new ConcurrentLinearProbingHashMap<>(2);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random rand = new Random(42);
+        for (int i = 0; i < ops; i++) {
+            Integer key = rand.nextInt(ops / 8 + 1);
+            switch (rand.nextInt(5)) {
+                case 0:
+                    check(eq(map.put(key, i), expected.put(key, i)), "put");
+                    break;
+                case 1:
+                    check(eq(map.putIfAbsent(key, i), expected.putIfAbsent(key, i)), "putIfAbsent");
+                    break;
+                case 2:
+                    Integer removed = expected.remove(key);
+                    try {
+                        check(eq(map.remove(key), removed), "remove");
+                    } catch (NoSuchElementException e) {
+                        check(removed == null, "remove of a present key");
+                    }
+                    break;
+                case 3:
+                    if (rand.nextInt(1000) == 0) {
+                        map.clear();
+                        expected.clear();
+                    }
+                    break;
+                default:
+                    check(map.containsKey(key) == expected.containsKey(key), "containsKey");
+                    break;
+            }
+            check(map.size() == expected.size(), "size");
+        }
+        check(map.keySet().equals(expected.keySet()), "keySet");
+    }
+
+    /**
+     * Has every thread put, read back, remove and put again its own range of
+     * keys, then checks that exactly the right keys are left.
+     *
+     * @param threads the number of threads
+     * @param keys    the number of keys per thread
+     * @throws java.lang.IllegalStateException if a thread misses its own
+     *                                         write or the keys left are wrong
+     */
+    private static void disjointWriters(int threads, int keys) {
+        ConcurrentLinearProbingHashMap<Integer, Integer> map = new ConcurrentLinearProbingHashMap<>(2);
+        runThreads(threads, t -> {
+            int base = t * keys;
+            for (int i = base; i < base + keys; i++) {
+                check(map.put(i, i) == null, "put of a new key");
+                check(map.get(i) == i, "get of an own key");
+            }
+            for (int i = base; i < base + keys; i += 2) {
+                check(map.remove(i) == i, "remove of an own key");
+            }
+            for (int i = base; i < base + keys; i += 4) {
+                check(map.putIfAbsent(i, -i) == null, "putIfAbsent of a removed key");
+            }
+        });
+        int left = threads * ((keys + 1) / 2 + (keys + 3) / 4);
+        check(map.size() == left, "size after the writers");
+        check(map.keySet().size() == left, "keySet after the writers");
+        for (int i = 0; i < threads * keys; i++) {
+            boolean kept = i % 4 == 0 || i % 2 == 1;
+            check(map.containsKey(i) == kept, "key " + i + " after the writers");
+        }
+    }
+
+    /**
+     * Has every thread computeIfAbsent the same keys in its own random
+     * order, counting the calls of the mapping function per key.
+     *
+     * @param threads the number of threads
+     * @param keys    the number of keys
+     * @return the total number of calls of the mapping function
+     * @throws java.lang.IllegalStateException if a key was computed other
+     *                                         than once or got a wrong value
+     */
+    private static int computeIfAbsentCalls(int threads, int keys) {
+        ConcurrentLinearProbingHashMap<Integer, Integer> map = new ConcurrentLinearProbingHashMap<>(2);
+        AtomicIntegerArray calls = new AtomicIntegerArray(keys);
+        runThreads(threads, t -> {
+            Random rand = new Random(t);
+            for (int i = 0; i < keys; i++) {
+                int key = rand.nextInt(keys);
+                int value = map.computeIfAbsent(key, k -> {
+                    calls.incrementAndGet(k);
+                    return 3 * k;
+                });
+                check(value == 3 * key, "computeIfAbsent value");
+            }
+        });
+        int total = 0;
+        for (int k = 0; k < keys; k++) {
+            check(calls.get(k) == (map.containsKey(k) ? 1 : 0), "mapping function calls of key " + k);
+            total += calls.get(k);
+        }
+        check(total == map.size(), "calls against size");
+        return total;
+    }
+
+    /**
+     * Has every thread put and remove the same hot keys while adding keys of
+     * its own to force resizes, and read the stable keys throughout.
+     * Afterwards each hot key must be present exactly when more of the puts
+     * that added it than of the removes that took it out succeeded.
+     *
+     * @param threads the number of threads
+     * @param keys    the number of operations per thread
+     * @return the capacity of the map at the end
+     * @throws java.lang.IllegalStateException if a stable key goes missing,
+     *                                         a value is wrong or the hot
+     *                                         keys do not add up
+     */
+    private static int racingResize(int threads, int keys) {
+        ConcurrentLinearProbingHashMap<Integer, Integer> map = new ConcurrentLinearProbingHashMap<>(2);
+        for (int k = -STABLE_KEYS; k < 0; k++) {
+            map.put(k, k);
+        }
+        AtomicIntegerArray net = new AtomicIntegerArray(HOT_KEYS);
+        runThreads(threads, t -> {
+            Random rand = new Random(t);
+            int own = HOT_KEYS + t;
+            for (int i = 0; i < keys; i++) {
+                int key = rand.nextInt(HOT_KEYS);
+                if (rand.nextBoolean()) {
+                    if (map.putIfAbsent(key, key) == null) {
+                        net.incrementAndGet(key);
+                    }
+                } else {
+                    try {
+                        check(map.remove(key) == key, "removed value");
+                        net.decrementAndGet(key);
+                    } catch (NoSuchElementException e) {
+                        // another thread removed it first
+                    }
+                }
+                int stable = -1 - rand.nextInt(STABLE_KEYS);
+                check(map.get(stable) == stable, "stable key " + stable + " during a resize");
+                map.put(own, own);
+                own += threads;
+            }
+        });
+        for (int k = 0; k < HOT_KEYS; k++) {
+            check(net.get(k) == (map.containsKey(k) ? 1 : 0), "hot key " + k);
+        }
+        check(map.size() == map.keySet().size(), "size against keySet");
+        return map.capacity();
+    }
+
+    /**
+     * Times threads writers that each put, get and remove their own keys in
+     * a map shared by all of them, and prints the best and median rate.
+     *
+     * @param threads the number of writers
+     * @param keys    the number of keys per writer
+     */
+    private static void scaling(int threads, int keys) {
+        long[] times = new long[ROUNDS];
+        for (int r = -1; r < ROUNDS; r++) {
+            ConcurrentLinearProbingHashMap<Integer, Integer> map = new ConcurrentLinearProbingHashMap<>();
+            long start = System.nanoTime();
+            runThreads(threads, t -> {
+                int base = t * keys;
+                long sum = 0;
+                for (int i = base; i < base + keys; i++) {
+                    map.put(i, i);
+                }
+                for (int i = base; i < base + keys; i++) {
+                    sum += map.get(i);
+                }
+                for (int i = base; i < base + keys; i++) {
+                    sum -= map.remove(i);
+                }
+                check(sum == 0, "values read back");
+            });
+            if (r >= 0) {
+                times[r] = System.nanoTime() - start;
+            }
+        }
+        java.util.Arrays.sort(times);
+        double ops = 3.0 * threads * keys;
+        System.out.printf("  %2d writers   best %8.2f Mops/s   median %8.2f Mops/s%n", threads,
+            ops * 1e3 / times[0], ops * 1e3 / times[ROUNDS / 2]);
+    }
+
+    /**
+     * Runs body on the given number of threads, released together, and
+     * waits for all of them.
+     *
+     * @param threads the number of threads
+     * @param body    what each thread runs, given its index
+     * @throws java.lang.IllegalStateException if any thread failed, with its
+     *                                         failure as the cause
+     */
+    private static void runThreads(int threads, IntConsumer body) {
+        CyclicBarrier start = new CyclicBarrier(threads);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    body.accept(index);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("a thread failed", failure.get());
+        }
+    }
+
+    /**
+     * Tells whether two values are both null or equal.
+     *
+     * @param a the first value
+     * @param b the second value
+     * @return true if they are the same value
+     */
+    private static boolean eq(Integer a, Integer b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * Fails the check unless the condition holds.
+     *
+     * @param condition the condition that must hold
+     * @param what      what was checked, for the message
+     * @throws java.lang.IllegalStateException if the condition is false
+     */
+    private static void check(boolean condition, String what) {
+        if (!condition) {
+            throw new IllegalStateException("wrong " + what);
+        }
+    }
+}
@@ -0,0 +1,488 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.LinkedList;
+import java.util.HashSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A bucketized cuckoo hash map, as an alternative to LinearProbingHashMap
+ * for read-heavy maps that need a bound on the cost of every lookup.
+ *
+ * The table is split into buckets of BUCKET_SIZE slots, and every key has
+ * two candidate buckets, picked by two different mixes of its hash code. A
+ * key is always in one of its two buckets or in a small stash of normally
+ * at most STASH_SIZE entries, so get, containsKey and remove read two
+ * buckets and the stash, and never more, however full the map is.
+ *
+ * When both buckets of a new key are full, put evicts a random entry of one
+ * of them, moves it to its other bucket, and carries on the same way with
+ * whatever it evicts there, for at most MAX_KICKS moves. An entry that still
+ * has no place goes into the stash, and if the stash is full too, the table
+ * is doubled. With four slots per bucket this lets the table fill up to
+ * MAX_LOAD_FACTOR before it grows. Every slot caches the hash code of its
+ * key, so moving an entry never calls hashCode again. Removing just empties
+ * the slot, then moves back any stashed entry that fits there.
+ *
+ * The exceptions follow LinearProbingHashMap.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class CuckooHashMap<K, V> {
+
+    /**
+     * The number of slots in one bucket.
+     */
+    public static final int BUCKET_SIZE = 4;
+
+    /**
+     * The initial capacity of the CuckooHashMap when created with the
+     * default constructor.
+     */
+    public static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The max load factor of the CuckooHashMap.
+     */
+    public static final double MAX_LOAD_FACTOR = 0.9;
+
+    /**
+     * The most entries kept in the stash before the table is doubled, unless
+     * the table is less than half full.
+     */
+    public static final int STASH_SIZE = 4;
+
+    /**
+     * The most entries moved by one insertion before it gives up.
+     */
+    private static final int MAX_KICKS = 500;
+
+    private K[] keys;
+    private V[] values;
+    private int[] hashes;
+    private K[] stashKeys;
+    private V[] stashValues;
+    private int[] stashHashes;
+    private int stashSize;
+    private int size;
+
+    /**
+     * Constructs a new CuckooHashMap with a capacity of INITIAL_CAPACITY.
+     */
+    public CuckooHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new CuckooHashMap whose table has the smallest power of
+     * two length of at least initialCapacity, and at least two buckets.
+     *
+     * @param initialCapacity the least initial capacity of the table
+     * @throws java.lang.IllegalArgumentException if initialCapacity is not
+     *                                            positive or above 2^30
+     */
+    public CuckooHashMap(int initialCapacity) {
+        if (initialCapacity < 1 || initialCapacity > 1 << 30) {
+            throw new IllegalArgumentException("the initial capacity is out of range");
+        }
+        allocate(Math.max(2 * BUCKET_SIZE, Integer.highestOneBit(initialCapacity - 1) << 1));
+        stashKeys = (K[]) new Object[STASH_SIZE];
+        stashValues = (V[]) new Object[STASH_SIZE];
+        stashHashes = new int[STASH_SIZE];
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If the map already has this
+     * key, its value is replaced with the new one.
+     * The table is doubled before adding if the entry would push it past
+     * MAX_LOAD_FACTOR, or if no place can be found for it.
+     *
+     * @param key   the key to add
+     * @param value the value to add
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     * @throws java.lang.IllegalArgumentException if key or value is null
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("either the key or the value is null");
+        }
+        int hash = key.hashCode();
+        int idx = indexOf(key, hash);
+        if (idx >= 0) {
+            V old = values[idx];
+            values[idx] = value;
+            return old;
+        }
+        idx = stashIndexOf(key, hash);
+        if (idx >= 0) {
+            V old = stashValues[idx];
+            stashValues[idx] = value;
+            return old;
+        }
+        if ((size + 1.0) / keys.length > MAX_LOAD_FACTOR) {
+            resize(keys.length * 2);
+        }
+        insert(key, value, hash);
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @return the value previously associated with the key
+     * @throws java.lang.IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException   if the key is not in the map
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null, cannot remove it");
+        }
+        int hash = key.hashCode();
+        int idx = indexOf(key, hash);
+        if (idx >= 0) {
+            V old = values[idx];
+            keys[idx] = null;
+            values[idx] = null;
+            size--;
+            unstashInto(idx);
+            return old;
+        }
+        idx = stashIndexOf(key, hash);
+        if (idx >= 0) {
+            V old = stashValues[idx];
+            stashSize--;
+            stashKeys[idx] = stashKeys[stashSize];
+            stashValues[idx] = stashValues[stashSize];
+            stashHashes[idx] = stashHashes[stashSize];
+            stashKeys[stashSize] = null;
+            stashValues[stashSize] = null;
+            size--;
+            return old;
+        }
+        throw new java.util.NoSuchElementException("the key is not in the hashmap");
+    }
+
+    /**
+     * Gets the value associated with the given key, reading at most two
+     * buckets and the stash.
+     *
+     * @param key the key to search for in the map
+     * @return the value associated with the given key
+     * @throws java.lang.IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException   if the key is not in the map
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null");
+        }
+        int hash = key.hashCode();
+        int idx = indexOf(key, hash);
+        if (idx >= 0) {
+            return values[idx];
+        }
+        idx = stashIndexOf(key, hash);
+        if (idx >= 0) {
+            return stashValues[idx];
+        }
+        throw new java.util.NoSuchElementException("the key is not in the map");
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for in the map
+     * @return true if the key is contained within the map, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if key is null
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null");
+        }
+        int hash = key.hashCode();
+        return indexOf(key, hash) >= 0 || stashIndexOf(key, hash) >= 0;
+    }
+
+    /**
+     * Returns a Set view of the keys contained in this map.
+     *
+     * @return the set of keys in this map
+     */
+    public Set<K> keySet() {
+        HashSet<K> result = new HashSet<>();
+        for (K key : keys) {
+            if (key != null) {
+                result.add(key);
+            }
+        }
+        for (int i = 0; i < stashSize; i++) {
+            result.add(stashKeys[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a List view of the values contained in this map, in order of
+     * increasing index in the table, followed by those in the stash.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        LinkedList<V> result = new LinkedList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                result.add(values[i]);
+            }
+        }
+        for (int i = 0; i < stashSize; i++) {
+            result.add(stashValues[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Clears the map, going back to the INITIAL_CAPACITY.
+     */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        stashKeys = (K[]) new Object[STASH_SIZE];
+        stashValues = (V[]) new Object[STASH_SIZE];
+        stashHashes = new int[STASH_SIZE];
+        stashSize = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the size of the map.
+     *
+     * @return the size of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots in the table, not counting the stash.
+     *
+     * @return the capacity of the map
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the number of entries in the stash, which stays at or near 0
+     * unless the hash codes of many keys are equal.
+     *
+     * @return the number of stashed entries
+     */
+    public int stashSize() {
+        return stashSize;
+    }
+
+    /**
+     * this helper method finds the slot of a key in its two buckets
+     * @param key the key to search for
+     * @param hash the hash code of the key
+     * @return the index of the key, or -1 if it is not in the table
+     */
+    private int indexOf(K key, int hash) {
+        int first = firstBucket(hash);
+        for (int i = first; i < first + BUCKET_SIZE; i++) {
+            if (keys[i] != null && hashes[i] == hash && keys[i].equals(key)) {
+                return i;
+            }
+        }
+        int second = secondBucket(hash);
+        for (int i = second; i < second + BUCKET_SIZE; i++) {
+            if (keys[i] != null && hashes[i] == hash && keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * this helper method finds a key in the stash
+     * @param key the key to search for
+     * @param hash the hash code of the key
+     * @return the index of the key in the stash, or -1 if it is not there
+     */
+    private int stashIndexOf(K key, int hash) {
+        for (int i = 0; i < stashSize; i++) {
+            if (stashHashes[i] == hash && stashKeys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * this helper method places an entry whose key is not in the map, moving
+     * other entries between their buckets if it has to, then falling back to
+     * the stash and finally to doubling the table. A table that is less than
+     * half full is not doubled, since it only fails to place entries when
+     * their hash codes collide, which doubling cannot fix; the stash grows
+     * instead.
+     * @param key the key to add
+     * @param value the value to add
+     * @param hash the hash code of the key
+     */
+    private void insert(K key, V value, int hash) {
+        while (true) {
+            int bucket = firstBucket(hash);
+            if (place(bucket, key, value, hash) || place(secondBucket(hash), key, value, hash)) {
+                return;
+            }
+            ThreadLocalRandom rand = ThreadLocalRandom.current();
+            if (rand.nextBoolean()) {
+                bucket = secondBucket(hash);
+            }
+            for (int kick = 0; kick < MAX_KICKS; kick++) {
+                int victim = bucket + rand.nextInt(BUCKET_SIZE);
+                K evictedKey = keys[victim];
+                V evictedValue = values[victim];
+                int evictedHash = hashes[victim];
+                keys[victim] = key;
+                values[victim] = value;
+                hashes[victim] = hash;
+                key = evictedKey;
+                value = evictedValue;
+                hash = evictedHash;
+                bucket = bucket == firstBucket(hash) ? secondBucket(hash) : firstBucket(hash);
+                if (place(bucket, key, value, hash)) {
+                    return;
+                }
+            }
+            if (stashSize == stashKeys.length && size < keys.length / 2) {
+                stashKeys = Arrays.copyOf(stashKeys, stashSize * 2);
+                stashValues = Arrays.copyOf(stashValues, stashSize * 2);
+                stashHashes = Arrays.copyOf(stashHashes, stashSize * 2);
+            }
+            if (stashSize < stashKeys.length) {
+                stashKeys[stashSize] = key;
+                stashValues[stashSize] = value;
+                stashHashes[stashSize] = hash;
+                stashSize++;
+                return;
+            }
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * this helper method puts an entry into the first empty slot of a bucket
+     * @param bucket the index of the first slot of the bucket
+     * @param key the key to add
+     * @param value the value to add
+     * @param hash the hash code of the key
+     * @return true if the bucket had an empty slot
+     */
+    private boolean place(int bucket, K key, V value, int hash) {
+        for (int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+            if (keys[i] == null) {
+                keys[i] = key;
+                values[i] = value;
+                hashes[i] = hash;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * this helper method moves a stashed entry into the slot just emptied at
+     * idx, if the slot's bucket is one of the entry's two buckets
+     * @param idx the index of the empty slot
+     */
+    private void unstashInto(int idx) {
+        int bucket = idx & -BUCKET_SIZE;
+        for (int i = 0; i < stashSize; i++) {
+            int hash = stashHashes[i];
+            if (firstBucket(hash) == bucket || secondBucket(hash) == bucket) {
+                keys[idx] = stashKeys[i];
+                values[idx] = stashValues[i];
+                hashes[idx] = hash;
+                stashSize--;
+                stashKeys[i] = stashKeys[stashSize];
+                stashValues[i] = stashValues[stashSize];
+                stashHashes[i] = stashHashes[stashSize];
+                stashKeys[stashSize] = null;
+                stashValues[stashSize] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * this helper method finds the first bucket of a hash code, from a
+     * Fibonacci mix of it
+     * @param hash the hash code of the key
+     * @return the index of the first slot of the bucket
+     */
+    private int firstBucket(int hash) {
+        return PowerOfTwoHashMap.spread(hash) & (keys.length - 1) & -BUCKET_SIZE;
+    }
+
+    /**
+     * this helper method finds the second bucket of a hash code, from a
+     * murmur3 style mix of it that is independent of the first
+     * @param hash the hash code of the key
+     * @return the index of the first slot of the bucket
+     */
+    private int secondBucket(int hash) {
+        int h = hash * 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h & (keys.length - 1) & -BUCKET_SIZE;
+    }
+
+    /**
+     * this helper method moves every entry, stashed ones included, into a
+     * new table of the given length
+     * @param length the new length, a power of two of at least two buckets
+     */
+    private void resize(int length) {
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        int[] oldHashes = hashes;
+        K[] oldStashKeys = stashKeys.clone();
+        V[] oldStashValues = stashValues.clone();
+        int[] oldStashHashes = stashHashes.clone();
+        int oldStashSize = stashSize;
+        allocate(length);
+        for (int i = 0; i < oldStashSize; i++) {
+            stashKeys[i] = null;
+            stashValues[i] = null;
+        }
+        stashSize = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                insert(oldKeys[i], oldValues[i], oldHashes[i]);
+            }
+        }
+        for (int i = 0; i < oldStashSize; i++) {
+            insert(oldStashKeys[i], oldStashValues[i], oldStashHashes[i]);
+        }
+    }
+
+    /**
+     * this helper method installs an empty table of the given length
+     * @param length the new length, a power of two of at least two buckets
+     */
+    private void allocate(int length) {
+        keys = (K[]) new Object[length];
+        values = (V[]) new Object[length];
+        hashes = new int[length];
+    }
+}
@@ -0,0 +1,183 @@
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * A benchmark harness comparing the modulo-indexed LinearProbingHashMap with
+ * the mask-indexed PowerOfTwoHashMap.
+ *
+ * Usage: java HashMapBenchmark [size] [rounds]
+ *
+ * Each map is filled with size Integer keys, every key is looked up, and
+ * every key is removed, over three key sets: distinct random keys,
+ * sequential keys, and keys shifted up until they only differ in their high
+ * bits, which a mask without spreading would send to a handful of slots.
+ * Every map is warmed up first, and the best and median times of the put,
+ * get and remove phases are printed in milliseconds.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class HashMapBenchmark {
+
+    /**
+     * The number of untimed runs before measuring each map.
+     */
+    private static final int WARMUP_ROUNDS = 2;
+
+    /**
+     * The operations done on a map in one run, in order.
+     */
+    private static final String[] PHASES = {"put", "get", "remove"};
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the number of keys and the number of timed rounds, both
+     *             optional
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Random rand = new Random(42);
+
+        Integer[] random = new Integer[size];
+        Integer[] sequential = new Integer[size];
+        Integer[] highBits = new Integer[size];
+        HashSet<Integer> seen = new HashSet<>();
+        int shift = Integer.numberOfLeadingZeros(Math.max(1, size - 1));
+        for (int i = 0; i < size; i++) {
+            int key = rand.nextInt();
+            while (!seen.add(key)) {
+                key = rand.nextInt();
+            }
+            random[i] = key;
+            sequential[i] = i;
+            highBits[i] = i << shift;
+        }
+
+        run("random", random, rounds);
+        run("sequential", sequential, rounds);
+        run("i << " + shift, highBits, rounds);
+    }
+
+    /**
+     * Times both maps over one key set and prints the results.
+     *
+     * @param name   the name of the key set
+     * @param keys   the keys to use
+     * @param rounds the number of timed rounds
+     */
+    private static void run(String name, Integer[] keys, int rounds) {
+        System.out.printf("%s keys, %d keys, %d rounds%n", name, keys.length, rounds);
+        long[][] modulo = new long[PHASES.length][rounds];
+        long[][] mask = new long[PHASES.length][rounds];
+        for (int r = -WARMUP_ROUNDS; r < rounds; r++) {
+            long[] times = timeModulo(keys);
+            long[] maskTimes = timeMask(keys);
+            if (r >= 0) {
+                for (int p = 0; p < PHASES.length; p++) {
+                    modulo[p][r] = times[p];
+                    mask[p][r] = maskTimes[p];
+                }
+            }
+        }
+        for (int p = 0; p < PHASES.length; p++) {
+            report("LinearProbingHashMap." + PHASES[p], modulo[p]);
+            report("PowerOfTwoHashMap." + PHASES[p], mask[p]);
+        }
+    }
+
+    /**
+     * Runs the put, get and remove phases on a fresh LinearProbingHashMap.
+     *
+     * @param keys the keys to use
+     * @return the time of each phase in nanoseconds
+     */
+    private static long[] timeModulo(Integer[] keys) {
+        LinearProbingHashMap<Integer, Integer> map = new LinearProbingHashMap<>();
+        long[] times = new long[PHASES.length];
+        long start = System.nanoTime();
+        for (Integer key : keys) {
+            map.put(key, key);
+        }
+        times[0] = System.nanoTime() - start;
+        long sum = 0;
+        start = System.nanoTime();
+        for (Integer key : keys) {
+            sum += map.get(key);
+        }
+        times[1] = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (Integer key : keys) {
+            sum += map.remove(key);
+        }
+        times[2] = System.nanoTime() - start;
+        check(sum, keys);
+        return times;
+    }
+
+    /**
+     * Runs the put, get and remove phases on a fresh PowerOfTwoHashMap.
+     *
+     * @param keys the keys to use
+     * @return the time of each phase in nanoseconds
+     */
+    private static long[] timeMask(Integer[] keys) {
+        PowerOfTwoHashMap<Integer, Integer> map = new PowerOfTwoHashMap<>();
+        long[] times = new long[PHASES.length];
+        long start = System.nanoTime();
+        for (Integer key : keys) {
+            map.put(key, key);
+        }
+        times[0] = System.nanoTime() - start;
+        long sum = 0;
+        start = System.nanoTime();
+        for (Integer key : keys) {
+            sum += map.get(key);
+        }
+        times[1] = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (Integer key : keys) {
+            sum += map.remove(key);
+        }
+        times[2] = System.nanoTime() - start;
+        check(sum, keys);
+        return times;
+    }
+
+    /**
+     * Makes sure the lookups returned the right values, which also keeps
+     * the JIT from dropping them.
+     *
+     * @param sum  the sum of every value returned by get and remove
+     * @param keys the keys that were used
+     * @throws java.lang.IllegalStateException if the sum is wrong
+     */
+    private static void check(long sum, Integer[] keys) {
+        long expected = 0;
+        for (Integer key : keys) {
+            expected += 2L * key;
+        }
+        if (sum != expected) {
+            throw new IllegalStateException("a map returned a wrong value");
+        }
+    }
+
+    /**
+     * Prints the best and median of a set of timings.
+     *
+     * @param name  the name to print
+     * @param times the timings in nanoseconds, which get sorted
+     */
+    private static void report(String name, long[] times) {
+        Arrays.sort(times);
+        System.out.printf("  %-28s best %9.2f ms   median %9.2f ms%n", name,
+                times[0] / 1e6, times[times.length / 2] / 1e6);
+    }
+}
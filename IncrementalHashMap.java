@@ -0,0 +1,397 @@
+import java.util.List;
+import java.util.Set;
+import java.util.LinkedList;
+import java.util.HashSet;
+
+/**
+ * A PowerOfTwoHashMap that resizes incrementally, for maps large enough that
+ * rehashing the whole table inside one put would be a latency spike.
+ *
+ * When the table passes MAX_LOAD_FACTOR, put only allocates the new table
+ * and keeps the old one alive beside it. From then on every put, remove, get
+ * and containsKey first migrates the next MIGRATION_STEP slots of the old
+ * table into the new one, so no call does more than a constant amount of
+ * rehashing and a read-only phase still drains the old table. A migrated
+ * entry is moved into the new table as it is, and its old slot gets the
+ * shared MOVED entry, which is marked as removed and so keeps the probe
+ * sequences of the entries not yet migrated intact without allocating.
+ * Until the old table has been drained, lookups search the new table first
+ * and then the old one, and a key is only ever live in one of them: put
+ * replaces the value of a key found in the old table in place.
+ *
+ * The new table is made large enough that the migration always finishes
+ * before it fills up; should it not, the rest of the old table is migrated
+ * at once. The load is counted over every used slot, removed or not, so a
+ * table never runs out of empty slots and every probe ends. A resize only
+ * doubles the table when the live entries need it, and otherwise rehashes
+ * into the same length to drop the removed entries.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class IncrementalHashMap<K, V> {
+
+    /**
+     * The initial capacity of the IncrementalHashMap when created with the
+     * default constructor.
+     */
+    public static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The max load factor of the IncrementalHashMap, counting removed
+     * entries.
+     */
+    public static final double MAX_LOAD_FACTOR = 0.67;
+
+    /**
+     * The number of old table slots migrated by each put, remove, get and
+     * containsKey.
+     */
+    public static final int MIGRATION_STEP = 4;
+
+    /**
+     * The entry left in an old table slot once its entry has been migrated.
+     * It is marked as removed and never looked at otherwise.
+     */
+    private static final LinearProbingMapEntry<?, ?> MOVED = new LinearProbingMapEntry<>(null, null);
+
+    static {
+        MOVED.setRemoved(true);
+    }
+
+    private LinearProbingMapEntry<K, V>[] table;
+    private LinearProbingMapEntry<K, V>[] oldTable;
+    private int migrated;
+    private int occupied;
+    private int size;
+
+    /**
+     * Constructs a new IncrementalHashMap with a backing array of
+     * INITIAL_CAPACITY.
+     */
+    public IncrementalHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new IncrementalHashMap whose backing array has the
+     * smallest power of two length of at least initialCapacity.
+     *
+     * @param initialCapacity the least initial capacity of the backing array
+     * @throws java.lang.IllegalArgumentException if initialCapacity is not
+     *                                            positive or above 2^30
+     */
+    public IncrementalHashMap(int initialCapacity) {
+        if (initialCapacity < 1 || initialCapacity > 1 << 30) {
+            throw new IllegalArgumentException("the initial capacity is out of range");
+        }
+        int length = Math.max(2, Integer.highestOneBit(initialCapacity - 1) << 1);
+        table = (LinearProbingMapEntry<K, V>[]) new LinearProbingMapEntry[length];
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If an entry in the map
+     * already has this key, replace the entry's value with the new one
+     * passed in.
+     * If the entry would push the table past MAX_LOAD_FACTOR, a new table is
+     * started and the old one is migrated over the next calls.
+     *
+     * @param key   the key to add
+     * @param value the value to add
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     * @throws java.lang.IllegalArgumentException if key or value is null
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("either the key or the value is null");
+        }
+        migrate(MIGRATION_STEP);
+        int hash = PowerOfTwoHashMap.spread(key.hashCode());
+        LinearProbingMapEntry<K, V> entry = getEntry(key, hash);
+        if (entry != null) {
+            V dummy = entry.getValue();
+            entry.setValue(value);
+            return dummy;
+        }
+        if (occupied + 1 > table.length * MAX_LOAD_FACTOR) {
+            startResize();
+        }
+        insert(new LinearProbingMapEntry<K, V>(key, value), hash);
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from map by marking the entry as
+     * removed.
+     *
+     * @param key the key to remove
+     * @return the value previously associated with the key
+     * @throws java.lang.IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException   if the key is not in the map
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null, cannot remove it");
+        }
+        migrate(MIGRATION_STEP);
+        LinearProbingMapEntry<K, V> get = getEntry(key, PowerOfTwoHashMap.spread(key.hashCode()));
+        if (get != null) {
+            size--;
+            get.setRemoved(true);
+            return get.getValue();
+        }
+        throw new java.util.NoSuchElementException("the key is not in the hashmap");
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for in the map
+     * @return the value associated with the given key
+     * @throws java.lang.IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException   if the key is not in the map
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null");
+        }
+        migrate(MIGRATION_STEP);
+        LinearProbingMapEntry<K, V> entry = getEntry(key, PowerOfTwoHashMap.spread(key.hashCode()));
+        if (entry == null) {
+            throw new java.util.NoSuchElementException("the key is not in the map");
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for in the map
+     * @return true if the key is contained within the map, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if key is null
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null");
+        }
+        migrate(MIGRATION_STEP);
+        return getEntry(key, PowerOfTwoHashMap.spread(key.hashCode())) != null;
+    }
+
+    /**
+     * Returns a Set view of the keys contained in this map.
+     * @return the set of keys in this map
+     */
+    public Set<K> keySet() {
+        HashSet<K> keys = new HashSet<>();
+        for (LinearProbingMapEntry<K, V>[] arr : tables()) {
+            for (int i = 0; i < arr.length; i++) {
+                if (arr[i] != null && !arr[i].isRemoved()) {
+                    keys.add(arr[i].getKey());
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a List view of the values contained in this map.
+     * The values of the current table are listed first, then those still in
+     * the old table, each in order of increasing index.
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        LinkedList<V> values = new LinkedList<>();
+        for (LinearProbingMapEntry<K, V>[] arr : tables()) {
+            for (int i = 0; i < arr.length; i++) {
+                if (arr[i] != null && !arr[i].isRemoved()) {
+                    values.add(arr[i].getValue());
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Resize the backing table to length, which must be a power of two, all
+     * at once. Any migration in progress is finished first.
+     * The load factor is disregarded, and removed entries are dropped.
+     *
+     * @param length new length of the backing table
+     * @throws java.lang.IllegalArgumentException if length is not more than
+     *                                            the number of items in the
+     *                                            hash map, since a probe
+     *                                            needs an empty slot to stop
+     *                                            at, or is not a power of two
+     */
+    public void resizeBackingTable(int length) {
+        if (length <= size) {
+            throw new IllegalArgumentException("the new length is not more than the number of items in the hashmap");
+        }
+        if (length < 1 || Integer.bitCount(length) != 1) {
+            throw new IllegalArgumentException("the new length is not a power of two");
+        }
+        migrate(Integer.MAX_VALUE);
+        oldTable = table;
+        migrated = 0;
+        table = (LinearProbingMapEntry<K, V>[]) new LinearProbingMapEntry[length];
+        occupied = 0;
+        migrate(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns whether an incremental resize is in progress.
+     *
+     * @return true if the old table has not been fully migrated yet
+     */
+    public boolean isResizing() {
+        return oldTable != null;
+    }
+
+    /**
+     * Clears the map.
+     * Resets the table to a new array of the INITIAL_CAPACITY and resets the
+     * size, dropping any old table.
+     */
+    public void clear() {
+        table = (LinearProbingMapEntry<K, V>[]) new LinearProbingMapEntry[INITIAL_CAPACITY];
+        oldTable = null;
+        migrated = 0;
+        occupied = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the current table of the map, which new entries go into.
+     *
+     * @return the table of the map
+     */
+    public LinearProbingMapEntry<K, V>[] getTable() {
+        return table;
+    }
+
+    /**
+     * Returns the size of the map.
+     *
+     * @return the size of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * this helper method finds the live entry of a key, in the current table
+     * and then in the old one
+     * @param key the key to search for
+     * @param hash the spread hash of the key
+     * @return the entry of the key, or null if it is not in the map
+     */
+    private LinearProbingMapEntry<K, V> getEntry(K key, int hash) {
+        LinearProbingMapEntry<K, V> entry = find(table, key, hash);
+        if (entry == null && oldTable != null) {
+            entry = find(oldTable, key, hash);
+        }
+        return entry;
+    }
+
+    /**
+     * this helper method probes one table for the live entry of a key; the
+     * table always has an empty slot, so the probe ends
+     * @param arr the table to search
+     * @param key the key to search for
+     * @param hash the spread hash of the key
+     * @return the entry of the key, or null if it is not in arr
+     */
+    private LinearProbingMapEntry<K, V> find(LinearProbingMapEntry<K, V>[] arr, K key, int hash) {
+        int mask = arr.length - 1;
+        int idx = hash & mask;
+        while (arr[idx] != null) {
+            if (!arr[idx].isRemoved() && arr[idx].getKey().equals(key)) {
+                return arr[idx];
+            }
+            idx = (idx + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * this helper method puts an entry whose key is not in the map into the
+     * first empty or removed slot of its probe sequence in the current table
+     * @param entry the entry to add
+     * @param hash the spread hash of its key
+     */
+    private void insert(LinearProbingMapEntry<K, V> entry, int hash) {
+        int mask = table.length - 1;
+        int idx = hash & mask;
+        while (table[idx] != null && !table[idx].isRemoved()) {
+            idx = (idx + 1) & mask;
+        }
+        if (table[idx] == null) {
+            occupied++;
+        }
+        table[idx] = entry;
+    }
+
+    /**
+     * this helper method swaps in a new table and keeps the current one as
+     * the old table to migrate. The new length leaves room for at least
+     * twice the live entries, which is more than enough for the migration to
+     * finish before the new table fills up.
+     */
+    private void startResize() {
+        migrate(Integer.MAX_VALUE);
+        int length = table.length;
+        while (size + 1 > length * MAX_LOAD_FACTOR / 2) {
+            length *= 2;
+        }
+        oldTable = table;
+        migrated = 0;
+        table = (LinearProbingMapEntry<K, V>[]) new LinearProbingMapEntry[length];
+        occupied = 0;
+    }
+
+    /**
+     * this helper method moves the live entries of the next slots of the old
+     * table into the current one, leaving MOVED behind, and drops the old
+     * table once it has been walked to the end
+     * @param slots the number of old table slots to visit
+     */
+    private void migrate(int slots) {
+        if (oldTable == null) {
+            return;
+        }
+        int end = (int) Math.min(oldTable.length, (long) migrated + slots);
+        for (; migrated < end; migrated++) {
+            LinearProbingMapEntry<K, V> entry = oldTable[migrated];
+            if (entry != null && !entry.isRemoved()) {
+                insert(entry, PowerOfTwoHashMap.spread(entry.getKey().hashCode()));
+                oldTable[migrated] = (LinearProbingMapEntry<K, V>) MOVED;
+            }
+        }
+        if (migrated == oldTable.length) {
+            oldTable = null;
+        }
+    }
+
+    /**
+     * this helper method lists the tables that hold entries, the current one
+     * first
+     * @return the current table, and the old one if it is being migrated
+     */
+    private List<LinearProbingMapEntry<K, V>[]> tables() {
+        List<LinearProbingMapEntry<K, V>[]> tables = new LinkedList<>();
+        tables.add(table);
+        if (oldTable != null) {
+            tables.add(oldTable);
+        }
+        return tables;
+    }
+}
@@ -2,6 +2,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.LinkedList;
 import java.util.HashSet;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
 
 /**
  * Your implementation of a LinearProbingHashMap.
@@ -83,14 +85,29 @@ public class LinearProbingHashMap<K, V> {
      * @throws java.lang.IllegalArgumentException if key or value is null
      */
     public V put(K key, V value) {
-        int delete = -1;
         if (key == null || value == null) {
             throw new IllegalArgumentException("either the key or the value is null");
         }
         if ((size + 1.0) / table.length > MAX_LOAD_FACTOR) {
             resizeBackingTable(table.length * 2 + 1);
         }
-        int idx = Math.abs(key.hashCode() % table.length);
+        return putEntry(key, value, key.hashCode());
+    }
+
+    /**
+     * Given a key-value pair and the hash code of the key, this helper method
+     * probes for the key and adds or replaces its entry. It never resizes, so
+     * the caller has to make sure there is room for one more entry.
+     *
+     * @param key   the key to add
+     * @param value the value to add
+     * @param hash  the hash code of the key
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    private V putEntry(K key, V value, int hash) {
+        int delete = -1;
+        int idx = Math.abs(hash % table.length);
         int probe = 0;
         while (table[idx] != null && probe < size) {
             if (delete == -1 && table[idx].isRemoved()) {
@@ -123,7 +140,18 @@ public class LinearProbingHashMap<K, V> {
      * @return the LinearProbingMapEntry of the corresponding key
      */
     private LinearProbingMapEntry<K, V> getEntry(K key) {
-        int idx = Math.abs(key.hashCode() % table.length);
+        return getEntry(key, key.hashCode());
+    }
+
+    /**
+     * Same as getEntry(key), for a key whose hash code is already known.
+     *
+     * @param key  the key of the entry that we want to find
+     * @param hash the hash code of the key
+     * @return the LinearProbingMapEntry of the corresponding key
+     */
+    private LinearProbingMapEntry<K, V> getEntry(K key, int hash) {
+        int idx = Math.abs(hash % table.length);
         int probe = 0;
         while (probe < size && table[idx] != null && !table[idx].getKey().equals(key)) {
             if (!table[idx].isRemoved()) {
@@ -227,6 +255,130 @@ public class LinearProbingHashMap<K, V> {
         return haha;
     }
 
+    /**
+     * Adds every keys[i]-values[i] pair to the map, in order, as if by put.
+     * The table is resized at most once, up front, to the length put would
+     * have grown it to if every key were new, and all the hash codes are
+     * computed before any probing starts. Nothing is added if any argument
+     * is invalid.
+     *
+     * @param keys   the keys to add
+     * @param values the values to add, one for each key
+     * @throws java.lang.IllegalArgumentException if either array is null,
+     *                                            their lengths differ, or
+     *                                            any key or value is null
+     */
+    public void putAll(K[] keys, V[] values) {
+        if (keys == null || values == null) {
+            throw new IllegalArgumentException("either the keys or the values are null");
+        }
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("the keys and values have different lengths");
+        }
+        int[] hashes = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null || values[i] == null) {
+                throw new IllegalArgumentException("either a key or a value is null");
+            }
+            hashes[i] = keys[i].hashCode();
+        }
+        int length = table.length;
+        while ((size + (double) keys.length) / length > MAX_LOAD_FACTOR) {
+            length = length * 2 + 1;
+        }
+        if (length != table.length) {
+            resizeBackingTable(length);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            putEntry(keys[i], values[i], hashes[i]);
+        }
+    }
+
+    /**
+     * Looks up every key in keys and stores its value at the same index of
+     * results, or null if the key is not in the map. All the hash codes are
+     * computed before any probing starts, and nothing is allocated besides.
+     *
+     * @param keys    the keys to search for in the map
+     * @param results the array to store the values in, at least as long as
+     *                keys
+     * @return the number of keys that were found
+     * @throws java.lang.IllegalArgumentException if either array or any key
+     *                                            is null, or results is too
+     *                                            short
+     */
+    public int getAll(K[] keys, V[] results) {
+        if (keys == null || results == null) {
+            throw new IllegalArgumentException("either the keys or the results are null");
+        }
+        if (results.length < keys.length) {
+            throw new IllegalArgumentException("the results array is shorter than the keys");
+        }
+        int[] hashes = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                throw new IllegalArgumentException("a key is null");
+            }
+            hashes[i] = keys[i].hashCode();
+        }
+        int found = 0;
+        for (int i = 0; i < keys.length; i++) {
+            LinearProbingMapEntry<K, V> entry = getEntry(keys[i], hashes[i]);
+            if (entry != null) {
+                results[i] = entry.getValue();
+                found++;
+            } else {
+                results[i] = null;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Calls action on every key-value pair in the map, in order of
+     * increasing index in the table, without building any collection.
+     * The action must not add to or remove from the map.
+     *
+     * @param action the action to call on each pair
+     * @throws java.lang.IllegalArgumentException if action is null
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("the action is null");
+        }
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != null && !table[i].isRemoved()) {
+                action.accept(table[i].getKey(), table[i].getValue());
+            }
+        }
+    }
+
+    /**
+     * Removes every entry whose key and value match filter, by marking them
+     * as removed, in one pass over the table.
+     * The filter must not add to or remove from the map. If it throws, the
+     * entries it already matched stay removed.
+     *
+     * @param filter returns true for the pairs to remove
+     * @return true if any entry was removed
+     * @throws java.lang.IllegalArgumentException if filter is null
+     */
+    public boolean removeIf(BiPredicate<? super K, ? super V> filter) {
+        if (filter == null) {
+            throw new IllegalArgumentException("the filter is null");
+        }
+        boolean removed = false;
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != null && !table[i].isRemoved()
+                && filter.test(table[i].getKey(), table[i].getValue())) {
+                size--;
+                table[i].setRemoved(true);
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
     /**
      * Resize the backing table to length.
      * Disregard the load factor for this method. So, if the passed in length is
@@ -0,0 +1,353 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hash map from long keys to object values with open addressing and linear
+ * probing, modeled on LinearProbingHashMap but without boxing the keys or
+ * allocating entry objects.
+ *
+ * Keys and values live in a long array and a parallel Object array whose
+ * length is a power of two, so a slot is found with a mask instead of a
+ * modulo. Since the mask only keeps the low bits, every key is first run
+ * through mix, which spreads its bits, or sequential ids would fill
+ * neighbouring slots in long clusters. A key of 0 marks an empty slot; the
+ * key 0 itself is kept apart in hasZeroKey and zeroValue. Removing uses
+ * backward-shift deletion: the entries after the hole that may move into it
+ * are shifted back, so there are never tombstones and lookups stay short
+ * however many removals are made.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class LongObjectMap<V> {
+
+    /**
+     * The initial capacity of the LongObjectMap when created with the default
+     * constructor.
+     */
+    public static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The max load factor of the LongObjectMap.
+     */
+    public static final double MAX_LOAD_FACTOR = 0.67;
+
+    /**
+     * The largest length of the backing arrays.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private V[] values;
+    private boolean hasZeroKey;
+    private V zeroValue;
+    private int size;
+    private int resizeAt;
+
+    /**
+     * Constructs a new LongObjectMap with a capacity of INITIAL_CAPACITY.
+     */
+    public LongObjectMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new LongObjectMap whose backing arrays have the smallest
+     * power of two length of at least initialCapacity.
+     *
+     * @param initialCapacity the least initial capacity of the backing arrays
+     * @throws java.lang.IllegalArgumentException if initialCapacity is not
+     *                                            positive or too large
+     */
+    public LongObjectMap(int initialCapacity) {
+        if (initialCapacity < 1 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("the initial capacity is out of range");
+        }
+        allocate(Math.max(2, Integer.highestOneBit(initialCapacity - 1) << 1));
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If the map already has this
+     * key, its value is replaced with the new one.
+     * The table is doubled before adding if the entry would push it past
+     * MAX_LOAD_FACTOR.
+     *
+     * @param key   the key to add
+     * @param value the value to add
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     * @throws java.lang.IllegalArgumentException if value is null
+     * @throws java.lang.IllegalStateException    if the map is already at its
+     *                                            largest capacity and load
+     */
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("the value is null");
+        }
+        if (key == 0) {
+            V old = zeroValue;
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            return old;
+        }
+        if (size + 1 > resizeAt) {
+            if (keys.length == MAX_CAPACITY) {
+                throw new IllegalStateException("the map cannot grow any further");
+            }
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int idx = mix(key) & mask;
+        while (keys[idx] != 0) {
+            if (keys[idx] == key) {
+                V old = values[idx];
+                values[idx] = value;
+                return old;
+            }
+            idx = (idx + 1) & mask;
+        }
+        keys[idx] = key;
+        values[idx] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for in the map
+     * @return the value associated with the given key
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     */
+    public V get(long key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                throw new java.util.NoSuchElementException("the key is not in the map");
+            }
+            return zeroValue;
+        }
+        int idx = indexOf(key);
+        if (idx < 0) {
+            throw new java.util.NoSuchElementException("the key is not in the map");
+        }
+        return values[idx];
+    }
+
+    /**
+     * Gets the value associated with the given key, or a default if there is
+     * none. Unlike get, it never throws, which suits hot lookup paths.
+     *
+     * @param key          the key to search for in the map
+     * @param defaultValue the value to return if the key is not in the map
+     * @return the value associated with the given key, or defaultValue
+     */
+    public V getOrDefault(long key, V defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int idx = indexOf(key);
+        return idx < 0 ? defaultValue : values[idx];
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for in the map
+     * @return true if the key is contained within the map, false otherwise
+     */
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map, shifting back the
+     * entries after it in its cluster.
+     *
+     * @param key the key to remove
+     * @return the value previously associated with the key
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     */
+    public V remove(long key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                throw new java.util.NoSuchElementException("the key is not in the map");
+            }
+            V old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            size--;
+            return old;
+        }
+        int idx = indexOf(key);
+        if (idx < 0) {
+            throw new java.util.NoSuchElementException("the key is not in the map");
+        }
+        V old = values[idx];
+        shiftBack(idx);
+        size--;
+        return old;
+    }
+
+    /**
+     * Returns the keys in the map, in table order with the key 0 last.
+     *
+     * @return a new array of the keys in this map
+     */
+    public long[] keys() {
+        long[] result = new long[size];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                result[count] = keys[i];
+                count++;
+            }
+        }
+        if (hasZeroKey) {
+            result[count] = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a List view of the values in the map, in the same order as
+     * keys.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        ArrayList<V> result = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                result.add(values[i]);
+            }
+        }
+        if (hasZeroKey) {
+            result.add(zeroValue);
+        }
+        return result;
+    }
+
+    /**
+     * Clears the map, going back to the INITIAL_CAPACITY.
+     */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the size of the map.
+     *
+     * @return the size of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the length of the backing arrays.
+     *
+     * @return the capacity of the map
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Spreads the bits of a key so that its low bits depend on all of them,
+     * with a Fibonacci multiply followed by folding the high half down.
+     *
+     * @param key the key to hash
+     * @return the mixed hash of the key
+     */
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * this helper method finds the slot of a non-zero key
+     * @param key the key to search for
+     * @return the index of the key, or -1 if it is not in the table
+     */
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int idx = mix(key) & mask;
+        while (keys[idx] != 0) {
+            if (keys[idx] == key) {
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * this helper method empties the slot at hole, then walks the rest of its
+     * cluster and moves back every entry whose home slot is not between the
+     * hole and where it sits, so that no probe sequence is ever broken
+     * @param hole the index of the slot being emptied
+     */
+    private void shiftBack(int hole) {
+        int mask = keys.length - 1;
+        int idx = hole;
+        while (true) {
+            idx = (idx + 1) & mask;
+            long key = keys[idx];
+            if (key == 0) {
+                break;
+            }
+            int home = mix(key) & mask;
+            if (((idx - home) & mask) >= ((idx - hole) & mask)) {
+                keys[hole] = key;
+                values[hole] = values[idx];
+                hole = idx;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+    }
+
+    /**
+     * this helper method moves every entry into new backing arrays of the
+     * given length
+     * @param length the new length, a power of two larger than size
+     */
+    private void resize(int length) {
+        long[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(length);
+        int mask = length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int idx = mix(key) & mask;
+                while (keys[idx] != 0) {
+                    idx = (idx + 1) & mask;
+                }
+                keys[idx] = key;
+                values[idx] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * this helper method installs empty backing arrays of the given length
+     * @param length the new length, a power of two
+     */
+    private void allocate(int length) {
+        keys = new long[length];
+        values = (V[]) new Object[length];
+        resizeAt = (int) Math.min(length - 1, (long) (length * MAX_LOAD_FACTOR));
+    }
+}
@@ -0,0 +1,446 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A hash map from long keys to long values kept in a memory-mapped file,
+ * for indexes too large for the Java heap that must survive restarts. It
+ * uses the same linear probing as LongLongMap, and reopening it maps the
+ * file again without rebuilding anything.
+ *
+ * The file starts with a HEADER_BYTES header, followed by the table, one
+ * SLOT_BYTES slot per entry: the key and then the value, both little-endian.
+ * A key of 0 marks an empty slot, so a freshly created file, which is all
+ * zeros, is an empty table; the key 0 itself is kept in the header. Slots
+ * are found with LongLongMap.mix and a mask, and removing uses the same
+ * backward-shift deletion, so the file never holds tombstones. A
+ * MappedByteBuffer can map at most 2 GiB, so the table is mapped in chunks
+ * of 2^CHUNK_SHIFT slots, and nothing but the buffers lives on the heap.
+ *
+ * The capacity is fixed when the file is created, from the number of
+ * entries it is expected to hold, since growing it would mean rewriting the
+ * whole file. Every change is written straight into the mapping, where the
+ * operating system writes it back in its own time; force makes everything
+ * durable at once. A slot's value is written before its key, but a crash
+ * before force may still lose or tear recent changes. The map is not safe
+ * to use from several threads or processes at once.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class OffHeapLongLongMap implements Closeable {
+
+    /**
+     * The max load factor of the OffHeapLongLongMap.
+     */
+    public static final double MAX_LOAD_FACTOR = 0.67;
+
+    /**
+     * The size of the header, one page so that the table is page aligned.
+     */
+    public static final int HEADER_BYTES = 4096;
+
+    /**
+     * The size of one slot: an eight byte key and an eight byte value.
+     */
+    public static final int SLOT_BYTES = 16;
+
+    /**
+     * The largest number of slots in the table.
+     */
+    public static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * The log of the number of slots in one mapped chunk, for 1 GiB chunks.
+     */
+    private static final int CHUNK_SHIFT = 26;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private static final long MAGIC = 0x4F48_4C4C_4D41_5031L;
+    private static final int VERSION = 1;
+
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 8;
+    private static final int HAS_ZERO_KEY_AT = 12;
+    private static final int CAPACITY_AT = 16;
+    private static final int SIZE_AT = 24;
+    private static final int ZERO_VALUE_AT = 32;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] chunks;
+    private final int mask;
+    private final long maxSize;
+    private long size;
+    private boolean closed;
+
+    /**
+     * Maps the header and table of an open file.
+     *
+     * @param channel  the file, open for reading and writing
+     * @param capacity the number of slots, a power of two
+     * @throws java.io.IOException if the file cannot be mapped
+     */
+    private OffHeapLongLongMap(FileChannel channel, int capacity) throws IOException {
+        this.channel = channel;
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        int chunkSlots = Math.min(capacity, 1 << CHUNK_SHIFT);
+        chunks = new MappedByteBuffer[capacity / chunkSlots];
+        for (int i = 0; i < chunks.length; i++) {
+            long position = HEADER_BYTES + ((long) i << CHUNK_SHIFT) * SLOT_BYTES;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) chunkSlots * SLOT_BYTES);
+            chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        mask = capacity - 1;
+        maxSize = Math.min(capacity - 1, (long) (capacity * MAX_LOAD_FACTOR));
+    }
+
+    /**
+     * Creates a new, empty map file with room for expectedSize entries.
+     * The file is sparse, so disk space is only used as slots are filled.
+     *
+     * @param path         the file to create, which must not exist yet
+     * @param expectedSize the number of entries the map has to hold
+     * @return the new map
+     * @throws java.lang.IllegalArgumentException if expectedSize is negative
+     *                                            or needs more than
+     *                                            MAX_CAPACITY slots
+     * @throws java.io.IOException                if the file exists or
+     *                                            cannot be created
+     */
+    public static OffHeapLongLongMap create(Path path, long expectedSize) throws IOException {
+        if (expectedSize < 0 || expectedSize > (long) (MAX_CAPACITY * MAX_LOAD_FACTOR)) {
+            throw new IllegalArgumentException("the expected size is out of range");
+        }
+        int capacity = 16;
+        while (capacity < MAX_CAPACITY && (long) (capacity * MAX_LOAD_FACTOR) < expectedSize) {
+            capacity *= 2;
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            OffHeapLongLongMap map = new OffHeapLongLongMap(channel, capacity);
+            map.header.putLong(MAGIC_AT, MAGIC);
+            map.header.putInt(VERSION_AT, VERSION);
+            map.header.putLong(CAPACITY_AT, capacity);
+            return map;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a map file made by create, mapping it as it is.
+     *
+     * @param path the file to open
+     * @return the map
+     * @throws java.io.IOException if the file cannot be opened or is not a
+     *                             map file of this version
+     */
+    public static OffHeapLongLongMap open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("the file is too short to be a map");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getLong(MAGIC_AT) != MAGIC || header.getInt(VERSION_AT) != VERSION) {
+                throw new IOException("the file is not a map of this version");
+            }
+            long capacity = header.getLong(CAPACITY_AT);
+            if (capacity < 16 || capacity > MAX_CAPACITY || Long.bitCount(capacity) != 1
+                || channel.size() != HEADER_BYTES + capacity * SLOT_BYTES) {
+                throw new IOException("the file is corrupt");
+            }
+            OffHeapLongLongMap map = new OffHeapLongLongMap(channel, (int) capacity);
+            map.size = map.header.getLong(SIZE_AT);
+            return map;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If the map already has this
+     * key, its value is replaced with the new one.
+     *
+     * @param key   the key to add
+     * @param value the value to add
+     * @return the value previously associated with the key, or 0 if the key
+     * was not in the map
+     * @throws java.lang.IllegalStateException if the map is closed, or is
+     *                                         full and the key is new
+     */
+    public long put(long key, long value) {
+        ensureOpen();
+        if (key == 0) {
+            long old = header.getLong(ZERO_VALUE_AT);
+            header.putLong(ZERO_VALUE_AT, value);
+            if (header.getInt(HAS_ZERO_KEY_AT) == 0) {
+                header.putInt(HAS_ZERO_KEY_AT, 1);
+                setSize(size + 1);
+                return 0;
+            }
+            return old;
+        }
+        int idx = LongLongMap.mix(key) & mask;
+        long slotKey = keyAt(idx);
+        while (slotKey != 0) {
+            if (slotKey == key) {
+                long old = valueAt(idx);
+                setValue(idx, value);
+                return old;
+            }
+            idx = (idx + 1) & mask;
+            slotKey = keyAt(idx);
+        }
+        if (size + 1 > maxSize) {
+            throw new IllegalStateException("the map is full");
+        }
+        setValue(idx, value);
+        setKey(idx, key);
+        setSize(size + 1);
+        return 0;
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for in the map
+     * @return the value associated with the given key
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @throws java.lang.IllegalStateException  if the map is closed
+     */
+    public long get(long key) {
+        ensureOpen();
+        if (key == 0) {
+            if (header.getInt(HAS_ZERO_KEY_AT) == 0) {
+                throw new java.util.NoSuchElementException("the key is not in the map");
+            }
+            return header.getLong(ZERO_VALUE_AT);
+        }
+        int idx = indexOf(key);
+        if (idx < 0) {
+            throw new java.util.NoSuchElementException("the key is not in the map");
+        }
+        return valueAt(idx);
+    }
+
+    /**
+     * Gets the value associated with the given key, or a default if there is
+     * none.
+     *
+     * @param key          the key to search for in the map
+     * @param defaultValue the value to return if the key is not in the map
+     * @return the value associated with the given key, or defaultValue
+     * @throws java.lang.IllegalStateException if the map is closed
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        ensureOpen();
+        if (key == 0) {
+            return header.getInt(HAS_ZERO_KEY_AT) != 0 ? header.getLong(ZERO_VALUE_AT) : defaultValue;
+        }
+        int idx = indexOf(key);
+        return idx < 0 ? defaultValue : valueAt(idx);
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for in the map
+     * @return true if the key is contained within the map, false otherwise
+     * @throws java.lang.IllegalStateException if the map is closed
+     */
+    public boolean containsKey(long key) {
+        ensureOpen();
+        return key == 0 ? header.getInt(HAS_ZERO_KEY_AT) != 0 : indexOf(key) >= 0;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map, shifting back the
+     * entries after it in its cluster.
+     *
+     * @param key the key to remove
+     * @return the value previously associated with the key
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @throws java.lang.IllegalStateException  if the map is closed
+     */
+    public long remove(long key) {
+        ensureOpen();
+        if (key == 0) {
+            if (header.getInt(HAS_ZERO_KEY_AT) == 0) {
+                throw new java.util.NoSuchElementException("the key is not in the map");
+            }
+            header.putInt(HAS_ZERO_KEY_AT, 0);
+            setSize(size - 1);
+            return header.getLong(ZERO_VALUE_AT);
+        }
+        int idx = indexOf(key);
+        if (idx < 0) {
+            throw new java.util.NoSuchElementException("the key is not in the map");
+        }
+        long old = valueAt(idx);
+        shiftBack(idx);
+        setSize(size - 1);
+        return old;
+    }
+
+    /**
+     * Returns the size of the map.
+     *
+     * @return the size of the map
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return the capacity of the map
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Writes every change made so far back to the file.
+     *
+     * @throws java.lang.IllegalStateException if the map is closed
+     */
+    public void force() {
+        ensureOpen();
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+        header.force();
+    }
+
+    /**
+     * Forces the map and closes the file. The mapping itself is released
+     * once the map is garbage collected, since Java cannot unmap a
+     * MappedByteBuffer directly. Closing a closed map does nothing.
+     *
+     * @throws java.io.IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        force();
+        closed = true;
+        channel.close();
+    }
+
+    /**
+     * this helper method finds the slot of a non-zero key
+     * @param key the key to search for
+     * @return the index of the key, or -1 if it is not in the table
+     */
+    private int indexOf(long key) {
+        int idx = LongLongMap.mix(key) & mask;
+        long slotKey = keyAt(idx);
+        while (slotKey != 0) {
+            if (slotKey == key) {
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+            slotKey = keyAt(idx);
+        }
+        return -1;
+    }
+
+    /**
+     * this helper method empties the slot at hole, then walks the rest of its
+     * cluster and moves back every entry whose home slot is not between the
+     * hole and where it sits, the same way as LongLongMap
+     * @param hole the index of the slot being emptied
+     */
+    private void shiftBack(int hole) {
+        int idx = hole;
+        while (true) {
+            idx = (idx + 1) & mask;
+            long key = keyAt(idx);
+            if (key == 0) {
+                break;
+            }
+            int home = LongLongMap.mix(key) & mask;
+            if (((idx - home) & mask) >= ((idx - hole) & mask)) {
+                setValue(hole, valueAt(idx));
+                setKey(hole, key);
+                hole = idx;
+            }
+        }
+        setKey(hole, 0);
+        setValue(hole, 0);
+    }
+
+    /**
+     * this helper method reads the key of a slot
+     * @param idx the index of the slot
+     * @return the key, or 0 if the slot is empty
+     */
+    private long keyAt(int idx) {
+        return chunks[idx >>> CHUNK_SHIFT].getLong((idx & CHUNK_MASK) * SLOT_BYTES);
+    }
+
+    /**
+     * this helper method reads the value of a slot
+     * @param idx the index of the slot
+     * @return the value
+     */
+    private long valueAt(int idx) {
+        return chunks[idx >>> CHUNK_SHIFT].getLong((idx & CHUNK_MASK) * SLOT_BYTES + 8);
+    }
+
+    /**
+     * this helper method writes the key of a slot
+     * @param idx the index of the slot
+     * @param key the key to write
+     */
+    private void setKey(int idx, long key) {
+        chunks[idx >>> CHUNK_SHIFT].putLong((idx & CHUNK_MASK) * SLOT_BYTES, key);
+    }
+
+    /**
+     * this helper method writes the value of a slot
+     * @param idx the index of the slot
+     * @param value the value to write
+     */
+    private void setValue(int idx, long value) {
+        chunks[idx >>> CHUNK_SHIFT].putLong((idx & CHUNK_MASK) * SLOT_BYTES + 8, value);
+    }
+
+    /**
+     * this helper method updates the size and writes it to the header
+     * @param newSize the new size
+     */
+    private void setSize(long newSize) {
+        size = newSize;
+        header.putLong(SIZE_AT, newSize);
+    }
+
+    /**
+     * this helper method fails fast once the map has been closed
+     * @throws java.lang.IllegalStateException if the map is closed
+     */
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("the map is closed");
+        }
+    }
+}
@@ -0,0 +1,302 @@
+import java.util.List;
+import java.util.Set;
+import java.util.LinkedList;
+import java.util.HashSet;
+
+/**
+ * A LinearProbingHashMap whose backing table always has a power of two
+ * length, so that slots are found with a mask instead of a modulo.
+ *
+ * LinearProbingHashMap computes Math.abs(key.hashCode() % table.length) for
+ * every lookup and (idx + 1) % table.length for every probe step, and its
+ * 2n + 1 growth keeps the length odd so that the modulo uses every bit of the
+ * hash. Here the table doubles instead, the home slot is spread(hashCode) &
+ * (length - 1), and a probe step is (idx + 1) & (length - 1). A mask only
+ * keeps the low bits of the hash, so spread first mixes the high bits down;
+ * without it, keys whose hash codes differ only in their high bits, such as
+ * Float keys or multiples of the table length, would all collide.
+ * Everything else, including removal by marking entries as removed, is the
+ * same as in LinearProbingHashMap.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ *
+ * Resources: none
+ */
+public class PowerOfTwoHashMap<K, V> {
+
+    /**
+     * The initial capacity of the PowerOfTwoHashMap when created with the
+     * default constructor.
+     */
+    public static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The max load factor of the PowerOfTwoHashMap.
+     */
+    public static final double MAX_LOAD_FACTOR = 0.67;
+
+    private LinearProbingMapEntry<K, V>[] table;
+    private int size;
+
+    /**
+     * Constructs a new PowerOfTwoHashMap with a backing array of
+     * INITIAL_CAPACITY.
+     */
+    public PowerOfTwoHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new PowerOfTwoHashMap whose backing array has the smallest
+     * power of two length of at least initialCapacity.
+     *
+     * @param initialCapacity the least initial capacity of the backing array
+     * @throws java.lang.IllegalArgumentException if initialCapacity is not
+     *                                            positive or above 2^30
+     */
+    public PowerOfTwoHashMap(int initialCapacity) {
+        if (initialCapacity < 1 || initialCapacity > 1 << 30) {
+            throw new IllegalArgumentException("the initial capacity is out of range");
+        }
+        int length = Math.max(1, Integer.highestOneBit(initialCapacity - 1) << 1);
+        table = (LinearProbingMapEntry<K, V>[]) new LinearProbingMapEntry[length];
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If an entry in the map
+     * already has this key, replace the entry's value with the new one
+     * passed in.
+     * In the case of a collision, linear probing is used, wrapping around
+     * with a mask.
+     * If the entry would push the table past MAX_LOAD_FACTOR, the table is
+     * doubled before anything else.
+     *
+     * @param key   the key to add
+     * @param value the value to add
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     * @throws java.lang.IllegalArgumentException if key or value is null
+     */
+    public V put(K key, V value) {
+        int delete = -1;
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("either the key or the value is null");
+        }
+        if ((size + 1.0) / table.length > MAX_LOAD_FACTOR) {
+            resizeBackingTable(table.length * 2);
+        }
+        int mask = table.length - 1;
+        int idx = spread(key.hashCode()) & mask;
+        int probe = 0;
+        while (table[idx] != null && probe < size) {
+            if (delete == -1 && table[idx].isRemoved()) {
+                delete = idx;
+            }
+            if (table[idx].getKey().equals(key) && !table[idx].isRemoved()) {
+                V dummy = table[idx].getValue();
+                table[idx].setValue(value);
+                return dummy;
+            }
+            if (!table[idx].isRemoved()) {
+                probe++;
+            }
+            idx = (idx + 1) & mask;
+        }
+        if (delete != -1) {
+            table[delete] = new LinearProbingMapEntry<K, V>(key, value);
+        } else {
+            table[idx] = new LinearProbingMapEntry<K, V>(key, value);
+        }
+        size++;
+        return null;
+    }
+
+    /**
+     * Given the key of a specific map entry, this helper method finds and returns that entry.
+     * However, the method returns null if the target entry is not found in the map.
+     *
+     * @param key the key of the entry that we want to find
+     * @return the LinearProbingMapEntry of the corresponding key
+     */
+    private LinearProbingMapEntry<K, V> getEntry(K key) {
+        int mask = table.length - 1;
+        int idx = spread(key.hashCode()) & mask;
+        int probe = 0;
+        while (probe < size && table[idx] != null && !table[idx].getKey().equals(key)) {
+            if (!table[idx].isRemoved()) {
+                probe++;
+            }
+            idx = (idx + 1) & mask;
+        }
+        if (table[idx] != null && !table[idx].isRemoved() && table[idx].getKey().equals(key)) {
+            return table[idx];
+        }
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from map by marking the entry as
+     * removed.
+     *
+     * @param key the key to remove
+     * @return the value previously associated with the key
+     * @throws java.lang.IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException   if the key is not in the map
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null, cannot remove it");
+        }
+        LinearProbingMapEntry<K, V> get = getEntry(key);
+        if (get != null) {
+            size--;
+            get.setRemoved(true);
+            return get.getValue();
+        }
+        throw new java.util.NoSuchElementException("the key is not in the hashmap");
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for in the map
+     * @return the value associated with the given key
+     * @throws java.lang.IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException   if the key is not in the map
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null");
+        }
+        LinearProbingMapEntry<K, V> entry = getEntry(key);
+        if (entry == null) {
+            throw new java.util.NoSuchElementException("the key is not in the map");
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for in the map
+     * @return true if the key is contained within the map, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if key is null
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null");
+        }
+        return this.getEntry(key) != null;
+    }
+
+    /**
+     * Returns a Set view of the keys contained in this map.
+     * @return the set of keys in this map
+     */
+    public Set<K> keySet() {
+        HashSet<K> keys = new HashSet<>();
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != null && !table[i].isRemoved()) {
+                K key = table[i].getKey();
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a List view of the values contained in this map.
+     * The values are listed in order of increasing index in the table.
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        LinkedList<V> values = new LinkedList<>();
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != null && !table[i].isRemoved()) {
+                V value = table[i].getValue();
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Resize the backing table to length, which must be a power of two.
+     * The load factor is disregarded, as in LinearProbingHashMap, and
+     * removed entries are dropped.
+     *
+     * @param length new length of the backing table
+     * @throws java.lang.IllegalArgumentException if length is less than the
+     *                                            number of items in the hash
+     *                                            map, or is not a power of
+     *                                            two
+     */
+    public void resizeBackingTable(int length) {
+        if (length < size) {
+            throw new IllegalArgumentException("the new length is less than the number of items in the hashmap");
+        }
+        if (length < 1 || Integer.bitCount(length) != 1) {
+            throw new IllegalArgumentException("the new length is not a power of two");
+        }
+        LinearProbingMapEntry<K, V>[] oldArr = table;
+        table = new LinearProbingMapEntry[length];
+        int mask = length - 1;
+        for (int i = 0; i < oldArr.length; i++) {
+            if (oldArr[i] != null && !oldArr[i].isRemoved()) {
+                int idx = spread(oldArr[i].getKey().hashCode()) & mask;
+                while (table[idx] != null) {
+                    idx = (idx + 1) & mask;
+                }
+                table[idx] = new LinearProbingMapEntry<K, V>(oldArr[i].getKey(), oldArr[i].getValue());
+            }
+        }
+    }
+
+    /**
+     * Clears the map.
+     * Resets the table to a new array of the INITIAL_CAPACITY and resets the
+     * size.
+     */
+    public void clear() {
+        table = (LinearProbingMapEntry<K, V>[]) new LinearProbingMapEntry[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Returns the table of the map.
+     *
+     * @return the table of the map
+     */
+    public LinearProbingMapEntry<K, V>[] getTable() {
+        return table;
+    }
+
+    /**
+     * Returns the size of the map.
+     *
+     * @return the size of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Spreads the bits of a hash code so that its low bits depend on all of
+     * them: a Fibonacci multiply by 2^32 / phi, followed by folding the high
+     * half down. It is one multiply, a shift and an xor, much cheaper than
+     * the division it replaces.
+     *
+     * @param hash the hash code to spread
+     * @return the spread hash
+     */
+    static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,364 @@
+import java.util.List;
+import java.util.Set;
+import java.util.LinkedList;
+import java.util.HashSet;
+
+/**
+ * A hash map with open addressing and Robin Hood linear probing, as an
+ * alternative to LinearProbingHashMap for workloads with heavy churn.
+ *
+ * Every entry remembers its probe distance, how far it sits from its home
+ * slot. On insertion, an entry that has probed further than the one in the
+ * slot it is looking at takes that slot, and the richer entry moves on
+ * instead. That keeps the probe distances of all entries close together,
+ * which bounds the variance of lookups and lets a lookup stop as soon as it
+ * meets an entry closer to home than it has probed, since the key would
+ * have displaced that entry.
+ *
+ * Removal uses backward-shift deletion: the entries after the removed one
+ * are moved back by one slot until an empty slot or an entry at its home is
+ * reached. No tombstones are ever created, so probe lengths do not grow with
+ * the number of removals the way they do in LinearProbingHashMap. This is a
+ * separate class because LinearProbingHashMap may not gain new instance
+ * variables, which a probing mode would need.
+ *
+ * Indexing, growth to 2 * old length + 1, the load factor check and the
+ * exceptions follow LinearProbingHashMap; the low variance of Robin Hood
+ * probing allows a higher MAX_LOAD_FACTOR.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class RobinHoodHashMap<K, V> {
+
+    /**
+     * The initial capacity of the RobinHoodHashMap when created with the
+     * default constructor.
+     */
+    public static final int INITIAL_CAPACITY = 13;
+
+    /**
+     * The max load factor of the RobinHoodHashMap.
+     */
+    public static final double MAX_LOAD_FACTOR = 0.85;
+
+    private Entry<K, V>[] table;
+    private int size;
+
+    /**
+     * Constructs a new RobinHoodHashMap with a backing array of
+     * INITIAL_CAPACITY.
+     */
+    public RobinHoodHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new RobinHoodHashMap with a backing array of
+     * initialCapacity.
+     *
+     * @param initialCapacity the initial capacity of the backing array
+     * @throws java.lang.IllegalArgumentException if initialCapacity is not
+     *                                            positive
+     */
+    public RobinHoodHashMap(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("the initial capacity must be positive");
+        }
+        table = (Entry<K, V>[]) new Entry[initialCapacity];
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If an entry in the map
+     * already has this key, replace the entry's value with the new one
+     * passed in.
+     * The table is resized to 2 * old length + 1 before anything else if the
+     * entry would push it past MAX_LOAD_FACTOR.
+     *
+     * @param key   the key to add
+     * @param value the value to add
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     * @throws java.lang.IllegalArgumentException if key or value is null
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("either the key or the value is null");
+        }
+        if ((size + 1.0) / table.length > MAX_LOAD_FACTOR) {
+            resizeBackingTable(table.length * 2 + 1);
+        }
+        int hash = key.hashCode();
+        int idx = home(hash, table.length);
+        int dist = 0;
+        while (table[idx] != null && table[idx].dist >= dist) {
+            Entry<K, V> entry = table[idx];
+            if (entry.hash == hash && entry.key.equals(key)) {
+                V old = entry.value;
+                entry.value = value;
+                return old;
+            }
+            idx = next(idx);
+            dist++;
+        }
+        Entry<K, V> entry = new Entry<>(key, value, hash);
+        entry.dist = dist;
+        place(table, entry, idx);
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map, shifting the
+     * entries after it back by one slot.
+     *
+     * @param key the key to remove
+     * @return the value previously associated with the key
+     * @throws java.lang.IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException   if the key is not in the map
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null, cannot remove it");
+        }
+        int idx = indexOf(key);
+        if (idx < 0) {
+            throw new java.util.NoSuchElementException("the key is not in the hashmap");
+        }
+        V old = table[idx].value;
+        int nextIdx = next(idx);
+        while (table[nextIdx] != null && table[nextIdx].dist > 0) {
+            table[idx] = table[nextIdx];
+            table[idx].dist--;
+            idx = nextIdx;
+            nextIdx = next(nextIdx);
+        }
+        table[idx] = null;
+        size--;
+        return old;
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for in the map
+     * @return the value associated with the given key
+     * @throws java.lang.IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException   if the key is not in the map
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null");
+        }
+        int idx = indexOf(key);
+        if (idx < 0) {
+            throw new java.util.NoSuchElementException("the key is not in the map");
+        }
+        return table[idx].value;
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for in the map
+     * @return true if the key is contained within the map, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if key is null
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null");
+        }
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns a Set view of the keys contained in this map.
+     *
+     * @return the set of keys in this map
+     */
+    public Set<K> keySet() {
+        HashSet<K> keys = new HashSet<>();
+        for (Entry<K, V> entry : table) {
+            if (entry != null) {
+                keys.add(entry.key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a List view of the values contained in this map, in order of
+     * increasing index in the table.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        LinkedList<V> values = new LinkedList<>();
+        for (Entry<K, V> entry : table) {
+            if (entry != null) {
+                values.add(entry.value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Resize the backing table to length, reinserting every entry in order
+     * of increasing index in the old table.
+     * Disregard the load factor for this method.
+     *
+     * @param length new length of the backing table
+     * @throws java.lang.IllegalArgumentException if length is less than the
+     *                                            number of items in the hash
+     *                                            map, or is not positive
+     */
+    public void resizeBackingTable(int length) {
+        if (length < size || length < 1) {
+            throw new IllegalArgumentException("the new length is less than the number of items in the hashmap");
+        }
+        Entry<K, V>[] oldTable = table;
+        Entry<K, V>[] newTable = (Entry<K, V>[]) new Entry[length];
+        for (Entry<K, V> entry : oldTable) {
+            if (entry != null) {
+                entry.dist = 0;
+                place(newTable, entry, home(entry.hash, length));
+            }
+        }
+        table = newTable;
+    }
+
+    /**
+     * Returns the longest probe distance of any entry in the map. Robin Hood
+     * probing keeps it around log n, so a large value points at a poor
+     * hashCode.
+     *
+     * @return the largest distance of an entry from its home slot
+     */
+    public int maxProbeDistance() {
+        int max = 0;
+        for (Entry<K, V> entry : table) {
+            if (entry != null) {
+                max = Math.max(max, entry.dist);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Clears the map.
+     * Resets the table to a new array of the INITIAL_CAPACITY and resets the
+     * size.
+     */
+    public void clear() {
+        table = (Entry<K, V>[]) new Entry[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Returns the length of the backing table.
+     *
+     * @return the capacity of the map
+     */
+    public int capacity() {
+        return table.length;
+    }
+
+    /**
+     * Returns the size of the map.
+     *
+     * @return the size of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * this helper method finds the slot of a key, stopping early at the first
+     * entry that is closer to its home than the probe has come
+     * @param key the key to search for
+     * @return the index of the key, or -1 if it is not in the map
+     */
+    private int indexOf(K key) {
+        int hash = key.hashCode();
+        int idx = home(hash, table.length);
+        int dist = 0;
+        while (table[idx] != null && table[idx].dist >= dist) {
+            if (table[idx].hash == hash && table[idx].key.equals(key)) {
+                return idx;
+            }
+            idx = next(idx);
+            dist++;
+        }
+        return -1;
+    }
+
+    /**
+     * this helper method puts an entry into a table, starting at idx with its
+     * dist already set, swapping it with every entry on the way that is
+     * closer to its home slot
+     * @param target the table to insert into, which has a free slot
+     * @param entry the entry to insert
+     * @param idx the slot to start at
+     */
+    private static <K, V> void place(Entry<K, V>[] target, Entry<K, V> entry, int idx) {
+        while (target[idx] != null) {
+            if (target[idx].dist < entry.dist) {
+                Entry<K, V> richer = target[idx];
+                target[idx] = entry;
+                entry = richer;
+            }
+            idx = idx + 1 == target.length ? 0 : idx + 1;
+            entry.dist++;
+        }
+        target[idx] = entry;
+    }
+
+    /**
+     * this helper method finds the home slot of a hash, the same way as
+     * LinearProbingHashMap
+     * @param hash the hash code of the key
+     * @param length the length of the table
+     * @return the home slot of the hash
+     */
+    private static int home(int hash, int length) {
+        return Math.abs(hash % length);
+    }
+
+    /**
+     * this helper method steps to the next slot, wrapping around at the end
+     * @param idx the current slot
+     * @return the next slot
+     */
+    private int next(int idx) {
+        return idx + 1 == table.length ? 0 : idx + 1;
+    }
+
+    /**
+     * One key-value pair with its cached hash and its probe distance.
+     */
+    private static final class Entry<K, V> {
+
+        private final K key;
+        private V value;
+        private final int hash;
+        private int dist;
+
+        /**
+         * Creates an entry at distance 0.
+         * @param key the key
+         * @param value the value
+         * @param hash the hash code of the key
+         */
+        Entry(K key, V value, int hash) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+        }
+    }
+}
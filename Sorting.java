@@ -1,8 +1,26 @@
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.Random;
 import java.util.LinkedList;
 import java.util.PriorityQueue;
 import java.util.List;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.Arrays;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Your implementation of various sorting algorithms.
@@ -17,6 +35,106 @@ import java.util.List;
  */
 public class Sorting {
 
+    /**
+     * The length at or below which a range is finished with insertion sort
+     * instead of being split further.
+     */
+    private static final int INSERTION_THRESHOLD = 32;
+
+    /**
+     * Ranges shorter than this are sorted by timSort with binary insertion
+     * sort alone; it is also the upper bound of the minimum run length.
+     */
+    private static final int MIN_MERGE = 32;
+
+    /**
+     * The number of consecutive wins by one run after which a timSort merge
+     * starts galloping.
+     */
+    private static final int MIN_GALLOP = 7;
+
+    /**
+     * The default length at or below which the parallel sorts stop forking
+     * and finish a range on the current thread.
+     */
+    private static final int PARALLEL_CUTOFF = 1 << 13;
+
+    /**
+     * The number of sample elements parallelSampleSort draws per bucket.
+     */
+    private static final int SAMPLE_OVERSAMPLING = 32;
+
+    /**
+     * The most buckets parallelSampleSort splits an array into. It keeps the
+     * class of every element within a short.
+     */
+    private static final int MAX_SAMPLE_BUCKETS = 1 << 12;
+
+    /**
+     * The length at or below which introSort finishes a range with insertion
+     * sort.
+     */
+    private static final int INTRO_INSERTION_THRESHOLD = 16;
+
+    /**
+     * The length above which introSort picks its pivot with the ninther
+     * instead of the median of three.
+     */
+    private static final int NINTHER_THRESHOLD = 128;
+
+    /**
+     * The number of buckets per pass of the primitive radix sorts, one for
+     * every value of an 8-bit digit.
+     */
+    private static final int RADIX = 256;
+
+    /**
+     * The bucket size at or below which parallelMsdRadixSort finishes a
+     * bucket with insertion sort.
+     */
+    private static final int MSD_INSERTION_THRESHOLD = 64;
+
+    /**
+     * The longest range the primitive sorts finish with a sorting network.
+     */
+    private static final int NETWORK_MAX_SIZE = 16;
+
+    /**
+     * Whether the int and long sorts finish short ranges with sorting
+     * networks and branchless insertion sort, read once from the
+     * sorting.insertionLeaves system property. Setting the property swaps
+     * every such leaf for plain insertion sort, so that the two kinds of leaf
+     * can be benchmarked inside the same algorithm.
+     */
+    static final boolean NETWORK_LEAVES = !Boolean.getBoolean("sorting.insertionLeaves");
+
+    /**
+     * SORTING_NETWORKS[n] lists the comparators of a sorting network for n
+     * elements as consecutive index pairs (i, j) with i < j.
+     */
+    private static final int[][] SORTING_NETWORKS = buildNetworks();
+
+    /**
+     * The default number of bytes of heap externalSort may use.
+     */
+    private static final long DEFAULT_SORT_MEMORY = 64L << 20;
+
+    /**
+     * The default number of runs externalSort merges at once.
+     */
+    private static final int DEFAULT_FAN_IN = 64;
+
+    /**
+     * The estimated heap cost of one in-memory record beyond its bytes: the
+     * array header plus a reference from the chunk and from the scratch array.
+     */
+    private static final int RECORD_OVERHEAD = 32;
+
+    /**
+     * The largest buffer externalSort uses for one file.
+     */
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
     /**
      * Implement insertion sort.
      * It should be:
@@ -38,11 +156,20 @@ public class Sorting {
         if (arr == null || comparator == null) {
             throw new java.lang.IllegalArgumentException("the array or comparator is null");
         }
-        for (int i = 1; i < arr.length; i++) {
-            int idx = i;
-            while (idx != 0 && comparator.compare(arr[idx], arr[idx - 1]) < 0) {
-                swap(arr, idx, idx - 1);
-                idx--;
+        if (SortingMetrics.ENABLED) {
+            comparator = SortingMetrics.begin("insertionSort", arr.length, comparator);
+        }
+        try {
+            for (int i = 1; i < arr.length; i++) {
+                int idx = i;
+                while (idx != 0 && comparator.compare(arr[idx], arr[idx - 1]) < 0) {
+                    swap(arr, idx, idx - 1);
+                    idx--;
+                }
+            }
+        } finally {
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.end();
             }
         }
     }
@@ -55,6 +182,9 @@ public class Sorting {
      * @param <T> the generic type of the element
      */
     private static <T> void swap(T[] arr, int idx1, int idx2) {
+        if (SortingMetrics.ENABLED) {
+            SortingMetrics.swapped();
+        }
         T temp;
         temp = arr[idx1];
         arr[idx1] = arr[idx2];
@@ -85,32 +215,127 @@ public class Sorting {
             throw new java.lang.IllegalArgumentException("the array or comparator is null");
         }
 
-        int front = 0;
-        int back = arr.length - 1;
-        boolean swapMade = true;
+        if (SortingMetrics.ENABLED) {
+            comparator = SortingMetrics.begin("cocktailSort", arr.length, comparator);
+        }
+        try {
+            int front = 0;
+            int back = arr.length - 1;
+            boolean swapMade = true;
 
-        while (swapMade) {
-            swapMade = false;
-            int end = back;
-            for (int idx = front; idx < end; idx++) {
-                if (comparator.compare(arr[idx], arr[idx + 1]) > 0) {
-                    swap(arr, idx, idx + 1);
-                    swapMade = true;
-                    back = idx;
-                }
-            }
-            if (swapMade) {
+            while (swapMade) {
                 swapMade = false;
-                int start = front;
-                for (int idx = back; idx > start; idx--) {
-                    if (comparator.compare(arr[idx - 1], arr[idx]) > 0) {
-                        swap(arr, idx - 1, idx);
+                int end = back;
+                for (int idx = front; idx < end; idx++) {
+                    if (comparator.compare(arr[idx], arr[idx + 1]) > 0) {
+                        swap(arr, idx, idx + 1);
                         swapMade = true;
-                        front = idx;
+                        back = idx;
+                    }
+                }
+                if (swapMade) {
+                    swapMade = false;
+                    int start = front;
+                    for (int idx = back; idx > start; idx--) {
+                        if (comparator.compare(arr[idx - 1], arr[idx]) > 0) {
+                            swap(arr, idx - 1, idx);
+                            swapMade = true;
+                            front = idx;
+                        }
                     }
                 }
             }
+        } finally {
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.end();
+            }
+        }
+    }
+
+    /**
+     * Bounded-displacement sort for k-sorted arrays, in which every element
+     * is at most k positions away from its place in sorted order.
+     * It should be:
+     * in-place (plus a heap of k + 1 elements)
+     * unstable
+     * adaptive
+     * Have a worst case running time of:
+     * O(n log k)
+     * A window of the next k + 1 elements is kept in a PriorityQueue. The
+     * smallest element in the window must belong at the front of whatever
+     * is left to place, since nothing further right can be more than k
+     * positions early, so each step polls it into arr[i - k] and adds
+     * arr[i + 1] to the window. Where cocktailSort degrades to O(n^2) once
+     * elements are moderately displaced, this stays O(n log k). If some
+     * element is further than k positions from its place, the result is not
+     * guaranteed to be sorted.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param k          the largest distance of any element from its place
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null, or if k is negative
+     */
+    public static <T> void kSortedSort(T[] arr, int k, Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new java.lang.IllegalArgumentException("the array or comparator is null");
+        }
+        if (k < 0) {
+            throw new java.lang.IllegalArgumentException("k cannot be negative");
+        }
+        if (k == 0 || arr.length < 2) {
+            return;
+        }
+        int window = Math.min(k, arr.length - 1);
+        if (SortingMetrics.ENABLED) {
+            comparator = SortingMetrics.begin("kSortedSort", arr.length, comparator);
+            SortingMetrics.scratch(window + 1);
+        }
+        try {
+            PriorityQueue<T> heap = new PriorityQueue<>(window + 1, comparator);
+            int out = 0;
+            for (int i = 0; i < arr.length; i++) {
+                heap.add(arr[i]);
+                if (heap.size() > window) {
+                    arr[out] = heap.poll();
+                    out++;
+                }
+            }
+            while (!heap.isEmpty()) {
+                arr[out] = heap.poll();
+                out++;
+            }
+        } finally {
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.end();
+            }
+        }
+    }
+
+    /**
+     * Streaming version of kSortedSort. The returned iterator yields the
+     * elements of a k-sorted source in sorted order, reading at most k + 1
+     * elements ahead of what it has returned, so it uses O(k) memory however
+     * long the stream is. It is lazy: nothing is read from source until the
+     * first call to hasNext or next.
+     *
+     * @param <T>        data type to sort
+     * @param source     the k-sorted elements
+     * @param k          the largest distance of any element from its place
+     * @param comparator the Comparator used to compare the elements
+     * @return an iterator over the elements of source in sorted order
+     * @throws java.lang.IllegalArgumentException if the source or comparator
+     *                                            is null, or if k is negative
+     */
+    public static <T> Iterator<T> kSortedIterator(Iterator<T> source, int k, Comparator<T> comparator) {
+        if (source == null || comparator == null) {
+            throw new java.lang.IllegalArgumentException("the source or comparator is null");
         }
+        if (k < 0) {
+            throw new java.lang.IllegalArgumentException("k cannot be negative");
+        }
+        return new KSortedIterator<>(source, k, comparator);
     }
 
     /**
@@ -141,6 +366,25 @@ public class Sorting {
             throw new java.lang.IllegalArgumentException("the array or comparator is null");
         }
 
+        if (SortingMetrics.ENABLED) {
+            comparator = SortingMetrics.begin("mergeSort", arr.length, comparator);
+        }
+        try {
+            mergeSortHelp(arr, comparator);
+        } finally {
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.end();
+            }
+        }
+    }
+
+    /**
+     * this helper method implements the actual content of the mergeSort method
+     * @param arr the array to be sorted
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param <T> the generic type of the element
+     */
+    private static <T> void mergeSortHelp(T[] arr, Comparator<T> comparator) {
         if (arr.length <= 1) {
             return;
         }
@@ -157,8 +401,15 @@ public class Sorting {
             right[i - mid] = arr[i];
         }
 
-        mergeSort(left, comparator);
-        mergeSort(right, comparator);
+        if (SortingMetrics.ENABLED) {
+            SortingMetrics.scratch(l);
+            SortingMetrics.enter();
+        }
+        mergeSortHelp(left, comparator);
+        mergeSortHelp(right, comparator);
+        if (SortingMetrics.ENABLED) {
+            SortingMetrics.exit();
+        }
 
         int i = 0;
         int j = 0;
@@ -184,203 +435,4427 @@ public class Sorting {
     }
 
     /**
-     * Implement quick sort.
-     * Use the provided random object to select your pivots. For example if you
-     * need a pivot between a (inclusive) and b (exclusive) where b > a, use
-     * the following code:
-     * int pivotIndex = rand.nextInt(b - a) + a;
-     * If your recursion uses an inclusive b instead of an exclusive one,
-     * the formula changes by adding 1 to the nextInt() call:
-     * int pivotIndex = rand.nextInt(b - a + 1) + a;
+     * Bottom-up merge sort that allocates a single scratch buffer up front.
      * It should be:
-     * in-place
-     * unstable
-     * not adaptive
+     * out-of-place (one auxiliary array of length n)
+     * stable
+     * adaptive
      * Have a worst case running time of:
-     * O(n^2)
-     * And a best case running time of:
      * O(n log n)
-     * Make sure you code the algorithm as you have been taught it in class.
-     * There are several versions of this algorithm and you may not receive
-     * credit if you do not use the one we have taught you!
+     * And a best case running time of:
+     * O(n)
+     * Runs of INSERTION_THRESHOLD elements are first sorted with insertion
+     * sort, then neighbouring runs of doubling width are merged. Two runs that
+     * are already in order are left alone, so sorted input only costs one
+     * comparison per merge.
      *
      * @param <T>        data type to sort
      * @param arr        the array that must be sorted after the method runs
      * @param comparator the Comparator used to compare the data in arr
-     * @param rand       the Random object used to select pivots
-     * @throws java.lang.IllegalArgumentException if the array or comparator or
-     *                                            rand is null
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null
      */
-    public static <T> void quickSort(T[] arr, Comparator<T> comparator,
-                                     Random rand) {
-        if (arr == null || comparator == null || rand == null) {
-            throw new java.lang.IllegalArgumentException("the array or comparator or rand is null");
+    public static <T> void bottomUpMergeSort(T[] arr, Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new java.lang.IllegalArgumentException("the array or comparator is null");
+        }
+        if (SortingMetrics.ENABLED) {
+            comparator = SortingMetrics.begin("bottomUpMergeSort", arr.length, comparator);
+            SortingMetrics.scratch(arr.length);
+        }
+        try {
+            bottomUpMergeSort(arr, comparator, (T[]) new Object[arr.length]);
+        } finally {
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.end();
+            }
         }
+    }
 
-        quickHelp(arr, comparator, rand, 0, arr.length - 1);
+    /**
+     * Bottom-up merge sort that uses the caller's buffer as its only scratch
+     * space, so repeated calls can share one buffer and allocate nothing.
+     * The buffer's contents are overwritten; it may be reused right away.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr
+     * @param buffer     the scratch array, at least as long as arr
+     * @throws java.lang.IllegalArgumentException if the array, comparator or
+     *                                            buffer is null, or if the
+     *                                            buffer is shorter than arr
+     */
+    public static <T> void bottomUpMergeSort(T[] arr, Comparator<T> comparator, T[] buffer) {
+        if (arr == null || comparator == null || buffer == null) {
+            throw new java.lang.IllegalArgumentException("the array or comparator or buffer is null");
+        }
+        if (buffer.length < arr.length) {
+            throw new java.lang.IllegalArgumentException("the buffer is shorter than the array");
+        }
+        if (SortingMetrics.ENABLED) {
+            comparator = SortingMetrics.begin("bottomUpMergeSort", arr.length, comparator);
+        }
+        try {
+            bottomUpHelp(arr, comparator, buffer, 0, arr.length);
+        } finally {
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.end();
+            }
+        }
     }
 
     /**
-     * this helper method implements the actual content of the quickSort method
-     * @param arr the arr that will be sorted
+     * this helper method sorts arr[lo, hi) bottom-up, using the same indices of
+     * the buffer as scratch space
+     * @param arr the array that will be sorted
      * @param comparator the comparator object that helps us compare elements in the arr
-     * @param rand an object that helps us generate a pseudo-random number
-     * @param start the first index of the sub-array that will be sorted
-     * @param end the last index of the sub-array that will be sorted
+     * @param buffer the scratch array, at least hi long
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
      * @param <T> the generic type of the element
      */
-    private static <T> void quickHelp(T[] arr, Comparator<T> comparator, Random rand, int start, int end) {
-        if (end - start < 1) {
-            return;
+    private static <T> void bottomUpHelp(T[] arr, Comparator<T> comparator, T[] buffer, int lo, int hi) {
+        int n = hi - lo;
+        for (int start = lo; start < hi; start += INSERTION_THRESHOLD) {
+            insertionHelp(arr, comparator, start, start + Math.min(INSERTION_THRESHOLD, hi - start));
         }
-        int pivotIndex = rand.nextInt(end - start + 1) + start;
-        T val = arr[pivotIndex];
-        swap(arr, start, pivotIndex);
-
-        int i = start + 1;
-        int j = end;
-
-        while (i <= j) {
-            while (i <= j && comparator.compare(arr[i], val) <= 0) {
-                i++;
+        for (int width = INSERTION_THRESHOLD; width < n; width = n - width > width ? width * 2 : n) {
+            for (int start = lo; hi - start > width; start += 2 * width) {
+                int mid = start + width;
+                mergeHelp(arr, comparator, buffer, start, mid, mid + Math.min(width, hi - mid));
+                if (hi - mid <= width) {
+                    break;
+                }
             }
-            while (i <= j && comparator.compare(arr[j], val) >= 0) {
-                j--;
+        }
+    }
+
+    /**
+     * this helper method insertion sorts arr[lo, hi) by shifting elements
+     * instead of swapping them
+     * @param arr the array that will be sorted
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     * @param <T> the generic type of the element
+     */
+    private static <T> void insertionHelp(T[] arr, Comparator<T> comparator, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            T cur = arr[i];
+            int idx = i;
+            while (idx > lo && comparator.compare(cur, arr[idx - 1]) < 0) {
+                arr[idx] = arr[idx - 1];
+                idx--;
             }
-            if (i <= j) {
-                swap(arr, i, j);
+            arr[idx] = cur;
+        }
+    }
+
+    /**
+     * this helper method stably merges the sorted runs arr[lo, mid) and
+     * arr[mid, hi). Only the left run is copied out, into buffer[lo, mid), and
+     * the merge is skipped entirely when the two runs are already in order.
+     * @param arr the array holding both runs
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param buffer the scratch array, at least mid long
+     * @param lo the first index of the left run (inclusive)
+     * @param mid the first index of the right run
+     * @param hi the last index of the right run (exclusive)
+     * @param <T> the generic type of the element
+     */
+    private static <T> void mergeHelp(T[] arr, Comparator<T> comparator, T[] buffer, int lo, int mid, int hi) {
+        if (comparator.compare(arr[mid - 1], arr[mid]) <= 0) {
+            return;
+        }
+        System.arraycopy(arr, lo, buffer, lo, mid - lo);
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while (i < mid && j < hi) {
+            if (comparator.compare(buffer[i], arr[j]) > 0) {
+                arr[k] = arr[j];
+                j++;
+            } else {
+                arr[k] = buffer[i];
                 i++;
-                j--;
             }
+            k++;
         }
-
-        swap(arr, start, j);
-        quickHelp(arr, comparator, rand, start, j - 1);
-        quickHelp(arr, comparator, rand, j + 1, end);
+        // whatever is left of the right run is already in its final place
+        System.arraycopy(buffer, i, arr, k, mid - i);
     }
 
-
     /**
-     * Implement LSD (least significant digit) radix sort.
-     * Make sure you code the algorithm as you have been taught it in class.
-     * There are several versions of this algorithm and you may not get full
-     * credit if you do not implement the one we have taught you!
-     * Remember you CANNOT convert the ints to strings at any point in your
-     * code! Doing so may result in a 0 for the implementation.
+     * Adaptive natural merge sort in the style of TimSort.
      * It should be:
-     * out-of-place
+     * out-of-place (at most n / 2 auxiliary references)
      * stable
-     * not adaptive
+     * adaptive
      * Have a worst case running time of:
-     * O(kn)
+     * O(n log n)
      * And a best case running time of:
-     * O(kn)
-     *
-     * You are allowed to make an initial O(n) passthrough of the array to
-     * determine the number of iterations you need. The number of iterations
-     * can be determined using the number with the largest magnitude.
-     * At no point should you find yourself needing a way to exponentiate a
-     * number; any such method would be non-O(1). Think about how you can
-     * get each power of BASE naturally and efficiently as the algorithm
-     * progresses through each digit.
-     *
-     * Refer to the PDF for more information on LSD Radix Sort.
-     * You may use ArrayList or LinkedList if you wish, but it may only be
-     * used inside radix sort and any radix sort helpers. Do NOT use these
-     * classes with other sorts. However, be sure the List implementation you
-     * choose allows for stability while being as efficient as possible.
-     * Do NOT use anything from the Math class except Math.abs().
+     * O(n)
+     * The array is scanned for runs that are already ascending or strictly
+     * descending (descending runs are reversed in place, which keeps the sort
+     * stable). Runs shorter than a computed minimum are extended with binary
+     * insertion sort, and runs are merged off a stack so that merges stay
+     * balanced. When one run keeps winning during a merge, the merge switches
+     * to galloping mode and copies whole blocks at a time.
      *
-     * @param arr the array to be sorted
-     * @throws java.lang.IllegalArgumentException if the array is null
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null, or if the comparator
+     *                                            is found to be inconsistent
      */
-    public static void lsdRadixSort(int[] arr) {
-        if (arr == null) {
-            throw new java.lang.IllegalArgumentException("the array passed in is null");
-        }
+    public static <T> void timSort(T[] arr, Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new java.lang.IllegalArgumentException("the array or comparator is null");
+        }
+        if (SortingMetrics.ENABLED) {
+            comparator = SortingMetrics.begin("timSort", arr.length, comparator);
+        }
+        try {
+            timSortHelp(arr, comparator, 0, arr.length);
+        } finally {
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.end();
+            }
+        }
+    }
 
-        LinkedList<Integer>[] buckets = new LinkedList[19];
+    /**
+     * this helper method implements the actual content of the timSort method
+     * on arr[lo, hi)
+     * @param arr the array that will be sorted
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     * @param <T> the generic type of the element
+     */
+    private static <T> void timSortHelp(T[] arr, Comparator<T> comparator, int lo, int hi) {
+        int remaining = hi - lo;
+        if (remaining < 2) {
+            return;
+        }
+        if (remaining < MIN_MERGE) {
+            int runLen = countRunAndMakeAscending(arr, comparator, lo, hi);
+            binaryInsertionHelp(arr, comparator, lo, hi, lo + runLen);
+            return;
+        }
 
-        for (int i = 0; i < 19; i++) {
-            buckets[i] = new LinkedList<Integer>();
+        TimSortRuns<T> runs = new TimSortRuns<>(arr, comparator);
+        int minRun = minRunLength(remaining);
+        while (remaining != 0) {
+            int runLen = countRunAndMakeAscending(arr, comparator, lo, hi);
+            if (runLen < minRun) {
+                int force = Math.min(remaining, minRun);
+                binaryInsertionHelp(arr, comparator, lo, lo + force, lo + runLen);
+                runLen = force;
+            }
+            runs.push(lo, runLen);
+            runs.mergeCollapse();
+            lo += runLen;
+            remaining -= runLen;
         }
+        runs.mergeForceCollapse();
+    }
 
-        int max = 0;
-        for (int j : arr) {
-            if (j == Integer.MIN_VALUE || max == Integer.MIN_VALUE) {
-                max = Integer.MIN_VALUE;
-            } else if (Math.abs(j) > Math.abs(max)) {
-                max = j;
+    /**
+     * this helper method finds the length of the run starting at arr[lo], and
+     * reverses it if it is strictly descending
+     * @param arr the array to scan
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param lo the index where the run starts
+     * @param hi the last index the run may reach (exclusive)
+     * @param <T> the generic type of the element
+     * @return the length of the run, which is now ascending
+     */
+    private static <T> int countRunAndMakeAscending(T[] arr, Comparator<T> comparator, int lo, int hi) {
+        int runHi = lo + 1;
+        if (runHi == hi) {
+            return 1;
+        }
+        if (comparator.compare(arr[runHi], arr[lo]) < 0) {
+            runHi++;
+            while (runHi < hi && comparator.compare(arr[runHi], arr[runHi - 1]) < 0) {
+                runHi++;
+            }
+            reverse(arr, lo, runHi);
+        } else {
+            runHi++;
+            while (runHi < hi && comparator.compare(arr[runHi], arr[runHi - 1]) >= 0) {
+                runHi++;
             }
         }
-        int count = 0;
-        while (max != 0) {
-            max /= 10;
-            count++;
+        return runHi - lo;
+    }
+
+    /**
+     * this method reverses arr[lo, hi) in place
+     * @param arr the array of which a range will be reversed
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     * @param <T> the generic type of the element
+     */
+    private static <T> void reverse(T[] arr, int lo, int hi) {
+        hi--;
+        while (lo < hi) {
+            swap(arr, lo, hi);
+            lo++;
+            hi--;
         }
+    }
 
-        int div = 1;
-        for (int k = 0; k < count; k++) {
-            for (int j : arr) {
-                int digit = helpDigit(j, div);
-                buckets[digit + 9].add(j);
+    /**
+     * this helper method is insertion sort that finds each insertion point
+     * with binary search, then shifts the larger elements over in one copy.
+     * arr[lo, start) must already be sorted.
+     * @param arr the array that will be sorted
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     * @param start the first index that is not yet known to be in order
+     * @param <T> the generic type of the element
+     */
+    private static <T> void binaryInsertionHelp(T[] arr, Comparator<T> comparator, int lo, int hi, int start) {
+        if (start == lo) {
+            start++;
+        }
+        for (int i = start; i < hi; i++) {
+            T cur = arr[i];
+            int left = lo;
+            int right = i;
+            // equal elements go after the existing ones to keep the sort stable
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (comparator.compare(cur, arr[mid]) < 0) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
             }
-            int idx = 0;
-            for (LinkedList<Integer> i : buckets) {
-                while (!i.isEmpty()) {
-                    arr[idx] = i.remove();
-                    idx++;
+            System.arraycopy(arr, left, arr, left + 1, i - left);
+            arr[left] = cur;
+        }
+    }
+
+    /**
+     * this helper method picks the minimum run length for an array of length
+     * n, so that n / minRun is a power of two or just below one
+     * @param n the length of the range being sorted
+     * @return the minimum run length
+     */
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= n & 1;
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * this helper method finds where key belongs in the sorted range
+     * arr[base, base + len), before any elements equal to it. It gallops
+     * outwards from hint and then binary searches the last gap.
+     * @param key the element whose position we want
+     * @param arr the array holding the sorted range
+     * @param base the first index of the range
+     * @param len the length of the range, must be positive
+     * @param hint the offset in the range to start searching from
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param <T> the generic type of the element
+     * @return the offset k such that arr[base + k - 1] < key <= arr[base + k]
+     */
+    private static <T> int gallopLeft(T key, T[] arr, int base, int len, int hint, Comparator<T> comparator) {
+        int lastOfs = 0;
+        int ofs = 1;
+        if (comparator.compare(key, arr[base + hint]) > 0) {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && comparator.compare(key, arr[base + hint + ofs]) > 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
                 }
             }
-            div *= 10;
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            lastOfs += hint;
+            ofs += hint;
+        } else {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && comparator.compare(key, arr[base + hint - ofs]) <= 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            int temp = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - temp;
+        }
+
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int mid = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (comparator.compare(key, arr[base + mid]) > 0) {
+                lastOfs = mid + 1;
+            } else {
+                ofs = mid;
+            }
         }
+        return ofs;
     }
 
     /**
-     * this method helps us find the target digit of the passed in number
-     * @param num the number of which we need to find the digit
-     * @param div the divisor -- by doing num/div, we can shift the target digit to the ones place
-     * @return the target digit of the passed in number
+     * this helper method is like gallopLeft, except that key goes after any
+     * elements equal to it
+     * @param key the element whose position we want
+     * @param arr the array holding the sorted range
+     * @param base the first index of the range
+     * @param len the length of the range, must be positive
+     * @param hint the offset in the range to start searching from
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param <T> the generic type of the element
+     * @return the offset k such that arr[base + k - 1] <= key < arr[base + k]
      */
-    private static int helpDigit(int num, int div) {
-        int digit = num / div;
-        return (digit % 10);
+    private static <T> int gallopRight(T key, T[] arr, int base, int len, int hint, Comparator<T> comparator) {
+        int lastOfs = 0;
+        int ofs = 1;
+        if (comparator.compare(key, arr[base + hint]) < 0) {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && comparator.compare(key, arr[base + hint - ofs]) < 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            int temp = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - temp;
+        } else {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && comparator.compare(key, arr[base + hint + ofs]) >= 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            lastOfs += hint;
+            ofs += hint;
+        }
+
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int mid = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (comparator.compare(key, arr[base + mid]) < 0) {
+                ofs = mid;
+            } else {
+                lastOfs = mid + 1;
+            }
+        }
+        return ofs;
     }
 
     /**
-     * Implement heap sort.
+     * Implement quick sort.
+     * Use the provided random object to select your pivots. For example if you
+     * need a pivot between a (inclusive) and b (exclusive) where b > a, use
+     * the following code:
+     * int pivotIndex = rand.nextInt(b - a) + a;
+     * If your recursion uses an inclusive b instead of an exclusive one,
+     * the formula changes by adding 1 to the nextInt() call:
+     * int pivotIndex = rand.nextInt(b - a + 1) + a;
      * It should be:
-     * out-of-place
+     * in-place
      * unstable
      * not adaptive
      * Have a worst case running time of:
-     * O(n log n)
+     * O(n^2)
      * And a best case running time of:
      * O(n log n)
-     * Use java.util.PriorityQueue as the heap. Note that in this
-     * PriorityQueue implementation, elements are removed from smallest
-     * element to largest element.
-     *
-     * Initialize the PriorityQueue using its build heap constructor (look at
-     * the different constructors of java.util.PriorityQueue).
+     * Make sure you code the algorithm as you have been taught it in class.
+     * There are several versions of this algorithm and you may not receive
+     * credit if you do not use the one we have taught you!
      *
-     * Return an int array with a capacity equal to the size of the list. The
-     * returned array should have the elements in the list in sorted order.
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr
+     * @param rand       the Random object used to select pivots
+     * @throws java.lang.IllegalArgumentException if the array or comparator or
+     *                                            rand is null
+     */
+    public static <T> void quickSort(T[] arr, Comparator<T> comparator,
+                                     Random rand) {
+        if (arr == null || comparator == null || rand == null) {
+            throw new java.lang.IllegalArgumentException("the array or comparator or rand is null");
+        }
+
+        if (SortingMetrics.ENABLED) {
+            comparator = SortingMetrics.begin("quickSort", arr.length, comparator);
+        }
+        try {
+            quickHelp(arr, comparator, rand, 0, arr.length - 1);
+        } finally {
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.end();
+            }
+        }
+    }
+
+    /**
+     * this helper method implements the actual content of the quickSort method
+     * @param arr the arr that will be sorted
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param rand an object that helps us generate a pseudo-random number
+     * @param start the first index of the sub-array that will be sorted
+     * @param end the last index of the sub-array that will be sorted
+     * @param <T> the generic type of the element
+     */
+    private static <T> void quickHelp(T[] arr, Comparator<T> comparator, Random rand, int start, int end) {
+        if (end - start < 1) {
+            return;
+        }
+        if (SortingMetrics.ENABLED) {
+            SortingMetrics.enter();
+        }
+        int pivotIndex = rand.nextInt(end - start + 1) + start;
+        int j = partition(arr, comparator, pivotIndex, start, end);
+        quickHelp(arr, comparator, rand, start, j - 1);
+        quickHelp(arr, comparator, rand, j + 1, end);
+        if (SortingMetrics.ENABLED) {
+            SortingMetrics.exit();
+        }
+    }
+
+    /**
+     * this helper method partitions arr[start, end] around the element at
+     * pivotIndex, the same way quickHelp does
+     * @param arr the arr that will be partitioned
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param pivotIndex the index of the pivot, between start and end
+     * @param start the first index of the sub-array that will be partitioned
+     * @param end the last index of the sub-array that will be partitioned
+     * @param <T> the generic type of the element
+     * @return the final index of the pivot; nothing before it is greater and
+     * nothing after it is smaller
+     */
+    private static <T> int partition(T[] arr, Comparator<T> comparator, int pivotIndex, int start, int end) {
+        T val = arr[pivotIndex];
+        swap(arr, start, pivotIndex);
+
+        int i = start + 1;
+        int j = end;
+
+        while (i <= j) {
+            while (i <= j && comparator.compare(arr[i], val) <= 0) {
+                i++;
+            }
+            while (i <= j && comparator.compare(arr[j], val) >= 0) {
+                j--;
+            }
+            if (i <= j) {
+                swap(arr, i, j);
+                i++;
+                j--;
+            }
+        }
+
+        swap(arr, start, j);
+        return j;
+    }
+
+    /**
+     * this helper method quick sorts arr[start, end] on one thread for
+     * parallelQuickSort, with the three-way partition of QuickSortTask,
+     * recursing into the smaller side and looping on the larger one
+     * @param arr the arr that will be sorted
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param rand the generator that selects the pivots
+     * @param start the first index of the sub-array that will be sorted
+     * @param end the last index of the sub-array that will be sorted
+     * @param <T> the generic type of the element
+     */
+    private static <T> void threeWayQuickHelp(T[] arr, Comparator<T> comparator, SplittableRandom rand,
+                                              int start, int end) {
+        while (end - start >= 1) {
+            T pivot = arr[rand.nextInt(end - start + 1) + start];
+            int lt = start;
+            int i = start;
+            int gt = end;
+            while (i <= gt) {
+                int cmp = comparator.compare(arr[i], pivot);
+                if (cmp < 0) {
+                    swap(arr, lt, i);
+                    lt++;
+                    i++;
+                } else if (cmp > 0) {
+                    swap(arr, i, gt);
+                    gt--;
+                } else {
+                    i++;
+                }
+            }
+
+            // arr[lt, gt] now holds every key equal to the pivot
+            if (lt - start < end - gt) {
+                threeWayQuickHelp(arr, comparator, rand, start, lt - 1);
+                start = gt + 1;
+            } else {
+                threeWayQuickHelp(arr, comparator, rand, gt + 1, end);
+                end = lt - 1;
+            }
+        }
+    }
+
+    /**
+     * Implement introsort.
+     * It should be:
+     * in-place
+     * unstable
+     * not adaptive
+     * Have a worst case running time of:
+     * O(n log n)
+     * And a best case running time of:
+     * O(n)
+     * Pivots are the median of three elements, or for large ranges the median
+     * of three such medians (Tukey's ninther). Each range is partitioned three
+     * ways into less than, equal to and greater than the pivot, so runs of
+     * equal keys are finished in one pass. Only the smaller side is recursed
+     * on, which bounds the stack depth by log n, and ranges of at most
+     * INTRO_INSERTION_THRESHOLD elements are finished with insertion sort.
+     * Once the partitioning has gone 2 * log n levels deep the remaining
+     * range is heap sorted instead.
      *
-     * @param data the data to sort
-     * @return the array with length equal to the size of the input list that
-     * holds the elements from the list is sorted order
-     * @throws java.lang.IllegalArgumentException if the data is null
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null
      */
-    public static int[] heapSort(List<Integer> data) {
-        if (data == null) {
-            throw new IllegalArgumentException("the input list of data is null");
+    public static <T> void introSort(T[] arr, Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new java.lang.IllegalArgumentException("the array or comparator is null");
         }
-        PriorityQueue<Integer> heap = new PriorityQueue<Integer>(data);
-        int[] arr = new int[data.size()];
-        for (int i = 0; i < data.size(); i++) {
-            arr[i] = heap.remove();
+        if (arr.length < 2) {
+            return;
+        }
+        if (SortingMetrics.ENABLED) {
+            comparator = SortingMetrics.begin("introSort", arr.length, comparator);
+        }
+        try {
+            introHelp(arr, comparator, 0, arr.length, 2 * log2(arr.length));
+        } finally {
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.end();
+            }
+        }
+    }
+
+    /**
+     * this helper method implements the actual content of the introSort method
+     * on arr[lo, hi)
+     * @param arr the array that will be sorted
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     * @param depthLimit how many more levels may be partitioned before heap
+     *                   sort takes over
+     * @param <T> the generic type of the element
+     */
+    private static <T> void introHelp(T[] arr, Comparator<T> comparator, int lo, int hi, int depthLimit) {
+        if (SortingMetrics.ENABLED) {
+            SortingMetrics.enter();
+        }
+        while (hi - lo > INTRO_INSERTION_THRESHOLD) {
+            if (depthLimit == 0) {
+                heapHelp(arr, comparator, lo, hi);
+                if (SortingMetrics.ENABLED) {
+                    SortingMetrics.exit();
+                }
+                return;
+            }
+            depthLimit--;
+
+            T pivot = arr[pivotOf(arr, comparator, lo, hi)];
+            int lt = lo;
+            int i = lo;
+            int gt = hi - 1;
+            while (i <= gt) {
+                int cmp = comparator.compare(arr[i], pivot);
+                if (cmp < 0) {
+                    swap(arr, lt, i);
+                    lt++;
+                    i++;
+                } else if (cmp > 0) {
+                    swap(arr, i, gt);
+                    gt--;
+                } else {
+                    i++;
+                }
+            }
+
+            // arr[lt, gt] now holds every key equal to the pivot
+            if (lt - lo < hi - gt - 1) {
+                introHelp(arr, comparator, lo, lt, depthLimit);
+                lo = gt + 1;
+            } else {
+                introHelp(arr, comparator, gt + 1, hi, depthLimit);
+                hi = lt;
+            }
+        }
+        insertionHelp(arr, comparator, lo, hi);
+        if (SortingMetrics.ENABLED) {
+            SortingMetrics.exit();
+        }
+    }
+
+    /**
+     * this helper method picks the pivot index for arr[lo, hi): the median of
+     * the first, middle and last elements, or the ninther for large ranges
+     * @param arr the array holding the range
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     * @param <T> the generic type of the element
+     * @return the index of the chosen pivot
+     */
+    private static <T> int pivotOf(T[] arr, Comparator<T> comparator, int lo, int hi) {
+        int last = hi - 1;
+        int mid = (lo + last) >>> 1;
+        if (hi - lo > NINTHER_THRESHOLD) {
+            int step = (hi - lo) / 8;
+            int first = medianOfThree(arr, comparator, lo, lo + step, lo + 2 * step);
+            int middle = medianOfThree(arr, comparator, mid - step, mid, mid + step);
+            int end = medianOfThree(arr, comparator, last - 2 * step, last - step, last);
+            return medianOfThree(arr, comparator, first, middle, end);
+        }
+        return medianOfThree(arr, comparator, lo, mid, last);
+    }
+
+    /**
+     * this helper method finds which of three indices holds the median value
+     * @param arr the array holding the elements
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param a the first index
+     * @param b the second index
+     * @param c the third index
+     * @param <T> the generic type of the element
+     * @return whichever of a, b and c holds the median
+     */
+    private static <T> int medianOfThree(T[] arr, Comparator<T> comparator, int a, int b, int c) {
+        if (comparator.compare(arr[a], arr[b]) < 0) {
+            if (comparator.compare(arr[b], arr[c]) < 0) {
+                return b;
+            }
+            return comparator.compare(arr[a], arr[c]) < 0 ? c : a;
+        }
+        if (comparator.compare(arr[a], arr[c]) < 0) {
+            return a;
+        }
+        return comparator.compare(arr[b], arr[c]) < 0 ? c : b;
+    }
+
+    /**
+     * this helper method heap sorts arr[lo, hi) in place using a max heap
+     * whose root is at lo
+     * @param arr the array that will be sorted
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     * @param <T> the generic type of the element
+     */
+    private static <T> void heapHelp(T[] arr, Comparator<T> comparator, int lo, int hi) {
+        int n = hi - lo;
+        buildHeap(arr, comparator, lo, n);
+        for (int size = n; size > 1; size--) {
+            popHeap(arr, comparator, lo, size);
+        }
+    }
+
+    /**
+     * this helper method turns arr[base, base + size) into a max heap with
+     * the BuildHeap algorithm
+     * @param arr the array holding the elements
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param base the index of the root
+     * @param size the number of elements
+     * @param <T> the generic type of the element
+     */
+    private static <T> void buildHeap(T[] arr, Comparator<T> comparator, int base, int size) {
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(arr, comparator, base, i, size);
+        }
+    }
+
+    /**
+     * this helper method moves the root of the max heap arr[base, base + size)
+     * to its last slot, and rebuilds the heap in the first size - 1 slots.
+     * The downHeap uses Floyd's trick: the hole left by the root goes all the
+     * way down to a leaf along the larger children, one comparison per level,
+     * and the displaced last element is then sifted up from there. That
+     * element is usually small, so it rarely climbs far, which saves almost
+     * half of the comparisons of the usual downHeap.
+     * @param arr the array holding the heap
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param base the index of the root
+     * @param size the number of elements in the heap, at least 1
+     * @param <T> the generic type of the element
+     */
+    private static <T> void popHeap(T[] arr, Comparator<T> comparator, int base, int size) {
+        size--;
+        T cur = arr[base + size];
+        arr[base + size] = arr[base];
+        int i = 0;
+        int child = 1;
+        while (child < size) {
+            if (child + 1 < size && comparator.compare(arr[base + child + 1], arr[base + child]) > 0) {
+                child++;
+            }
+            arr[base + i] = arr[base + child];
+            i = child;
+            child = 2 * i + 1;
+        }
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (comparator.compare(arr[base + parent], cur) >= 0) {
+                break;
+            }
+            arr[base + i] = arr[base + parent];
+            i = parent;
+        }
+        arr[base + i] = cur;
+    }
+
+    /**
+     * this helper method is the downHeap step of a max heap stored in
+     * arr[base, base + size), with the children of i at 2i + 1 and 2i + 2
+     * @param arr the array holding the heap
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param base the index of the root
+     * @param i the heap position to sift down from
+     * @param size the number of elements in the heap
+     * @param <T> the generic type of the element
+     */
+    private static <T> void siftDown(T[] arr, Comparator<T> comparator, int base, int i, int size) {
+        T cur = arr[base + i];
+        int child = 2 * i + 1;
+        while (child < size) {
+            if (child + 1 < size && comparator.compare(arr[base + child + 1], arr[base + child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(arr[base + child], cur) <= 0) {
+                break;
+            }
+            arr[base + i] = arr[base + child];
+            i = child;
+            child = 2 * i + 1;
+        }
+        arr[base + i] = cur;
+    }
+
+    /**
+     * this method finds the floor of the base 2 logarithm of a positive number
+     * @param n the number, must be positive
+     * @return floor(log2(n))
+     */
+    private static int log2(int n) {
+        return 31 - Integer.numberOfLeadingZeros(n);
+    }
+
+    /**
+     * Parallel version of bottomUpMergeSort that runs on the common
+     * ForkJoinPool with the default cutoff of PARALLEL_CUTOFF elements.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null
+     */
+    public static <T> void parallelMergeSort(T[] arr, Comparator<T> comparator) {
+        parallelMergeSort(arr, comparator, PARALLEL_CUTOFF, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel merge sort.
+     * It should be:
+     * out-of-place (one auxiliary array of length n)
+     * stable
+     * Have a worst case running time of:
+     * O(n log n) work
+     * The array is split in half until a piece is no longer than cutoff. The
+     * halves are sorted as separate fork/join tasks, pieces at the cutoff are
+     * sorted with bottomUpMergeSort, and each task merges its own two halves.
+     * The output is exactly the output of bottomUpMergeSort.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr; it is
+     *                   called from several threads at once
+     * @param cutoff     the longest range that is sorted without forking
+     * @param pool       the pool that runs the sort
+     * @throws java.lang.IllegalArgumentException if the array, comparator or
+     *                                            pool is null, or if cutoff
+     *                                            is not positive
+     */
+    public static <T> void parallelMergeSort(T[] arr, Comparator<T> comparator, int cutoff, ForkJoinPool pool) {
+        if (arr == null || comparator == null || pool == null) {
+            throw new java.lang.IllegalArgumentException("the array or comparator or pool is null");
+        }
+        if (cutoff < 1) {
+            throw new java.lang.IllegalArgumentException("the cutoff must be positive");
+        }
+        T[] buffer = (T[]) new Object[arr.length];
+        if (arr.length <= cutoff) {
+            bottomUpHelp(arr, comparator, buffer, 0, arr.length);
+            return;
+        }
+        pool.invoke(new MergeSortTask<>(arr, comparator, buffer, 0, arr.length, cutoff));
+    }
+
+    /**
+     * Parallel version of quickSort that runs on the common ForkJoinPool with
+     * the default cutoff of PARALLEL_CUTOFF elements.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr
+     * @param rand       the Random object used to select pivots
+     * @throws java.lang.IllegalArgumentException if the array or comparator or
+     *                                            rand is null
+     */
+    public static <T> void parallelQuickSort(T[] arr, Comparator<T> comparator, Random rand) {
+        parallelQuickSort(arr, comparator, rand, PARALLEL_CUTOFF, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel quick sort.
+     * It should be:
+     * in-place
+     * unstable
+     * Have a worst case running time of:
+     * O(n^2)
+     * And an expected running time of:
+     * O(n log n) work
+     * Each task partitions its range three ways, into the elements less than,
+     * equal to and greater than a random pivot, and forks only the less and
+     * greater sides, so runs of equal keys are finished in one pass instead
+     * of nesting a task per element. Ranges no longer than cutoff are
+     * finished on one thread with the same three-way partition. rand is only
+     * read once, to seed a SplittableRandom that is split at every fork, so
+     * each task draws its pivots from a generator of its own. No generator is
+     * shared between threads, and the same rand seed always gives the same
+     * pivots, and hence the same order of equal elements, however the tasks
+     * are scheduled.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr; it is
+     *                   called from several threads at once
+     * @param rand       the Random object used to select pivots
+     * @param cutoff     the longest range that is sorted without forking
+     * @param pool       the pool that runs the sort
+     * @throws java.lang.IllegalArgumentException if the array, comparator,
+     *                                            rand or pool is null, or if
+     *                                            cutoff is not positive
+     */
+    public static <T> void parallelQuickSort(T[] arr, Comparator<T> comparator, Random rand,
+                                             int cutoff, ForkJoinPool pool) {
+        if (arr == null || comparator == null || rand == null || pool == null) {
+            throw new java.lang.IllegalArgumentException("the array or comparator or rand or pool is null");
+        }
+        if (cutoff < 1) {
+            throw new java.lang.IllegalArgumentException("the cutoff must be positive");
+        }
+        SplittableRandom seeded = new SplittableRandom(rand.nextLong());
+        if (arr.length <= cutoff) {
+            threeWayQuickHelp(arr, comparator, seeded, 0, arr.length - 1);
+            return;
+        }
+        pool.invoke(new QuickSortTask<>(arr, comparator, seeded, 0, arr.length - 1, cutoff));
+    }
+
+    /**
+     * Parallel sample sort that runs on the common ForkJoinPool.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null
+     */
+    public static <T> void parallelSampleSort(T[] arr, Comparator<T> comparator) {
+        parallelSampleSort(arr, comparator, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel sample sort.
+     * It should be:
+     * out-of-place (one auxiliary array of length n, plus a short per element)
+     * stable
+     * Have a worst case running time of:
+     * O(n log n) work
+     * Splitters are chosen from a sorted random sample of the array, so that
+     * the buckets between them are of about equal size. The array is then
+     * split into chunks, and in one parallel pass every chunk finds the
+     * bucket of each of its elements by binary search over the splitters. A
+     * second parallel pass scatters every element to its bucket in the
+     * auxiliary array, each chunk writing to its own precomputed slice of
+     * every bucket, and finally the buckets are sorted independently with
+     * bottomUpMergeSort and copied back. There is no sequential merge at the
+     * top, so the work spreads over every thread of the pool.
+     * Keys equal to a splitter get a bucket of their own that needs no
+     * sorting at all, so heavily repeated keys do not pile up in one bucket.
+     * Since the scatter keeps the input order within each bucket and the
+     * bucket sort is stable, the whole sort is stable. Arrays no longer than
+     * PARALLEL_CUTOFF are sorted with bottomUpMergeSort instead.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr; it is
+     *                   called from several threads at once
+     * @param pool       the pool that runs the sort
+     * @throws java.lang.IllegalArgumentException if the array, comparator or
+     *                                            pool is null
+     */
+    public static <T> void parallelSampleSort(T[] arr, Comparator<T> comparator, ForkJoinPool pool) {
+        if (arr == null || comparator == null || pool == null) {
+            throw new java.lang.IllegalArgumentException("the array or comparator or pool is null");
+        }
+        T[] buffer = (T[]) new Object[arr.length];
+        if (arr.length <= PARALLEL_CUTOFF) {
+            bottomUpHelp(arr, comparator, buffer, 0, arr.length);
+            return;
+        }
+        sampleSortHelp(arr, comparator, buffer, pool);
+    }
+
+    /**
+     * this helper method implements the actual content of parallelSampleSort
+     * @param arr the array that will be sorted
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param buffer the scratch array, as long as arr
+     * @param pool the pool that runs the parallel passes
+     * @param <T> the generic type of the element
+     */
+    private static <T> void sampleSortHelp(T[] arr, Comparator<T> comparator, T[] buffer, ForkJoinPool pool) {
+        int n = arr.length;
+        int parallelism = pool.getParallelism();
+        int buckets = Math.max(2, Math.min(MAX_SAMPLE_BUCKETS, Math.min(parallelism * 8, n / PARALLEL_CUTOFF)));
+
+        // splitters are every SAMPLE_OVERSAMPLING-th element of a sorted random
+        // sample, with duplicates dropped
+        T[] sample = (T[]) new Object[buckets * SAMPLE_OVERSAMPLING];
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = arr[rand.nextInt(n)];
+        }
+        bottomUpHelp(sample, comparator, (T[]) new Object[sample.length], 0, sample.length);
+        T[] splitters = (T[]) new Object[buckets - 1];
+        int splitterCount = 0;
+        for (int i = 1; i < buckets; i++) {
+            T candidate = sample[i * SAMPLE_OVERSAMPLING];
+            if (splitterCount == 0 || comparator.compare(splitters[splitterCount - 1], candidate) < 0) {
+                splitters[splitterCount] = candidate;
+                splitterCount++;
+            }
+        }
+
+        // class 2b is the open bucket below splitter b, class 2b + 1 holds the
+        // keys equal to splitter b
+        int classes = 2 * splitterCount + 1;
+        int splitterTotal = splitterCount;
+        int chunks = Math.max(1, Math.min(parallelism * 4, n / PARALLEL_CUTOFF));
+        int chunkLen = (n + chunks - 1) / chunks;
+        short[] classOf = new short[n];
+        int[][] counts = new int[chunks][classes];
+        pool.invoke(new ForEachTask(c -> {
+            int[] count = counts[c];
+            int end = Math.min(n, (c + 1) * chunkLen);
+            for (int i = c * chunkLen; i < end; i++) {
+                T cur = arr[i];
+                int low = 0;
+                int high = splitterTotal;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (comparator.compare(cur, splitters[mid]) < 0) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                }
+                int cls = 2 * low;
+                if (low > 0 && comparator.compare(cur, splitters[low - 1]) == 0) {
+                    cls--;
+                }
+                classOf[i] = (short) cls;
+                count[cls]++;
+            }
+        }, 0, chunks));
+
+        // turn the per-chunk counts into per-chunk write positions
+        int[] classStart = new int[classes + 1];
+        int sum = 0;
+        for (int cls = 0; cls < classes; cls++) {
+            classStart[cls] = sum;
+            for (int c = 0; c < chunks; c++) {
+                int count = counts[c][cls];
+                counts[c][cls] = sum;
+                sum += count;
+            }
+        }
+        classStart[classes] = n;
+
+        pool.invoke(new ForEachTask(c -> {
+            int[] next = counts[c];
+            int end = Math.min(n, (c + 1) * chunkLen);
+            for (int i = c * chunkLen; i < end; i++) {
+                buffer[next[classOf[i]]++] = arr[i];
+            }
+        }, 0, chunks));
+
+        // the equal-key classes are already in order; arr is free to be the
+        // scratch space of the bucket sorts
+        pool.invoke(new ForEachTask(cls -> {
+            int lo = classStart[cls];
+            int hi = classStart[cls + 1];
+            if (cls % 2 == 0 && hi - lo > 1) {
+                bottomUpHelp(buffer, comparator, arr, lo, hi);
+            }
+            System.arraycopy(buffer, lo, arr, lo, hi - lo);
+        }, 0, classes));
+    }
+
+
+    /**
+     * Insertion sort over a primitive int array, in natural order. It has the
+     * same properties as insertionSort(T[], Comparator), but compares the
+     * elements directly instead of boxing them and calling a Comparator.
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void insertionSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        insertionHelp(arr, 0, arr.length);
+    }
+
+    /**
+     * Cocktail sort over a primitive int array, in natural order. It has the
+     * same properties as cocktailSort(T[], Comparator), including the last
+     * swapped optimization, but compares the elements directly.
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void cocktailSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+
+        int front = 0;
+        int back = arr.length - 1;
+        boolean swapMade = true;
+
+        while (swapMade) {
+            swapMade = false;
+            int end = back;
+            for (int idx = front; idx < end; idx++) {
+                if (arr[idx] > arr[idx + 1]) {
+                    swap(arr, idx, idx + 1);
+                    swapMade = true;
+                    back = idx;
+                }
+            }
+            if (swapMade) {
+                swapMade = false;
+                int start = front;
+                for (int idx = back; idx > start; idx--) {
+                    if (arr[idx - 1] > arr[idx]) {
+                        swap(arr, idx - 1, idx);
+                        swapMade = true;
+                        front = idx;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Merge sort over a primitive int array, in natural order. It works like
+     * bottomUpMergeSort: one scratch array is allocated, runs are insertion
+     * sorted, and runs that are already in order are not merged.
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void mergeSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        bottomUpHelp(arr, new int[arr.length], 0, arr.length);
+    }
+
+    /**
+     * Quick sort over a primitive int array, in natural order. Pivots are
+     * chosen at random as in quickSort(T[], Comparator, Random), but each
+     * range is partitioned three ways, into the values less than, equal to
+     * and greater than the pivot, so arrays full of duplicates take linear
+     * time instead of quadratic. Only the smaller side is recursed into and
+     * the larger one is looped on, so the stack never grows past log n.
+     *
+     * @param arr  the array that must be sorted after the method runs
+     * @param rand the Random object used to select pivots
+     * @throws java.lang.IllegalArgumentException if the array or rand is null
+     */
+    public static void quickSort(int[] arr, Random rand) {
+        if (arr == null || rand == null) {
+            throw new java.lang.IllegalArgumentException("the array or rand is null");
+        }
+        quickHelp(arr, rand, 0, arr.length - 1);
+    }
+
+    /**
+     * Insertion sort over a primitive long array, in natural order. It has the
+     * same properties as insertionSort(T[], Comparator), but compares the
+     * elements directly instead of boxing them and calling a Comparator.
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void insertionSort(long[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        insertionHelp(arr, 0, arr.length);
+    }
+
+    /**
+     * Cocktail sort over a primitive long array, in natural order. It has the
+     * same properties as cocktailSort(T[], Comparator), including the last
+     * swapped optimization, but compares the elements directly.
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void cocktailSort(long[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+
+        int front = 0;
+        int back = arr.length - 1;
+        boolean swapMade = true;
+
+        while (swapMade) {
+            swapMade = false;
+            int end = back;
+            for (int idx = front; idx < end; idx++) {
+                if (arr[idx] > arr[idx + 1]) {
+                    swap(arr, idx, idx + 1);
+                    swapMade = true;
+                    back = idx;
+                }
+            }
+            if (swapMade) {
+                swapMade = false;
+                int start = front;
+                for (int idx = back; idx > start; idx--) {
+                    if (arr[idx - 1] > arr[idx]) {
+                        swap(arr, idx - 1, idx);
+                        swapMade = true;
+                        front = idx;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Merge sort over a primitive long array, in natural order. It works like
+     * bottomUpMergeSort: one scratch array is allocated, runs are insertion
+     * sorted, and runs that are already in order are not merged.
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void mergeSort(long[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        bottomUpHelp(arr, new long[arr.length], 0, arr.length);
+    }
+
+    /**
+     * Quick sort over a primitive long array, in natural order. It works the
+     * same way as quickSort(int[], Random).
+     *
+     * @param arr  the array that must be sorted after the method runs
+     * @param rand the Random object used to select pivots
+     * @throws java.lang.IllegalArgumentException if the array or rand is null
+     */
+    public static void quickSort(long[] arr, Random rand) {
+        if (arr == null || rand == null) {
+            throw new java.lang.IllegalArgumentException("the array or rand is null");
+        }
+        quickHelp(arr, rand, 0, arr.length - 1);
+    }
+
+    /**
+     * Insertion sort over a primitive double array, in Double.compare order. It
+     * has the same properties as insertionSort(T[], Comparator), but compares
+     * the elements directly instead of boxing them and calling a Comparator.
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void insertionSort(double[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        insertionHelp(arr, 0, arr.length);
+    }
+
+    /**
+     * Cocktail sort over a primitive double array, in Double.compare order. It
+     * has the same properties as cocktailSort(T[], Comparator), including the
+     * last swapped optimization, but compares the elements directly.
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void cocktailSort(double[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+
+        int front = 0;
+        int back = arr.length - 1;
+        boolean swapMade = true;
+
+        while (swapMade) {
+            swapMade = false;
+            int end = back;
+            for (int idx = front; idx < end; idx++) {
+                if (Double.compare(arr[idx], arr[idx + 1]) > 0) {
+                    swap(arr, idx, idx + 1);
+                    swapMade = true;
+                    back = idx;
+                }
+            }
+            if (swapMade) {
+                swapMade = false;
+                int start = front;
+                for (int idx = back; idx > start; idx--) {
+                    if (Double.compare(arr[idx - 1], arr[idx]) > 0) {
+                        swap(arr, idx - 1, idx);
+                        swapMade = true;
+                        front = idx;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Merge sort over a primitive double array, in Double.compare order. It
+     * works like bottomUpMergeSort: one scratch array is allocated, runs are
+     * insertion sorted, and runs that are already in order are not merged.
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void mergeSort(double[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        bottomUpHelp(arr, new double[arr.length], 0, arr.length);
+    }
+
+    /**
+     * Quick sort over a primitive double array, in Double.compare order. It
+     * works the same way as quickSort(int[], Random).
+     *
+     * @param arr  the array that must be sorted after the method runs
+     * @param rand the Random object used to select pivots
+     * @throws java.lang.IllegalArgumentException if the array or rand is null
+     */
+    public static void quickSort(double[] arr, Random rand) {
+        if (arr == null || rand == null) {
+            throw new java.lang.IllegalArgumentException("the array or rand is null");
+        }
+        quickHelp(arr, rand, 0, arr.length - 1);
+    }
+
+    /**
+     * this method helps us swap the two target elements
+     * @param arr the array of which the elements will be swapped
+     * @param idx1 the index of the first element to be swapped
+     * @param idx2 the index of the second element to be swapped
+     */
+    private static void swap(int[] arr, int idx1, int idx2) {
+        int temp = arr[idx1];
+        arr[idx1] = arr[idx2];
+        arr[idx2] = temp;
+    }
+
+    /**
+     * this helper method sorts the primitive range arr[lo, hi) bottom-up, using
+     * the same indices of the buffer as scratch space
+     * @param arr the array that will be sorted
+     * @param buffer the scratch array, at least hi long
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void bottomUpHelp(int[] arr, int[] buffer, int lo, int hi) {
+        int n = hi - lo;
+        for (int start = lo; start < hi; start += INSERTION_THRESHOLD) {
+            smallSort(arr, start, start + Math.min(INSERTION_THRESHOLD, hi - start));
+        }
+        for (int width = INSERTION_THRESHOLD; width < n; width = n - width > width ? width * 2 : n) {
+            for (int start = lo; hi - start > width; start += 2 * width) {
+                int mid = start + width;
+                mergeHelp(arr, buffer, start, mid, mid + Math.min(width, hi - mid));
+                if (hi - mid <= width) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * this helper method merges the sorted primitive runs arr[lo, mid) and
+     * arr[mid, hi), the same way as mergeHelp(T[], Comparator, T[], int, int,
+     * int)
+     * @param arr the array holding both runs
+     * @param buffer the scratch array, at least mid long
+     * @param lo the first index of the left run (inclusive)
+     * @param mid the first index of the right run
+     * @param hi the last index of the right run (exclusive)
+     */
+    private static void mergeHelp(int[] arr, int[] buffer, int lo, int mid, int hi) {
+        if (arr[mid - 1] <= arr[mid]) {
+            return;
+        }
+        System.arraycopy(arr, lo, buffer, lo, mid - lo);
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while (i < mid && j < hi) {
+            if (buffer[i] > arr[j]) {
+                arr[k] = arr[j];
+                j++;
+            } else {
+                arr[k] = buffer[i];
+                i++;
+            }
+            k++;
+        }
+        System.arraycopy(buffer, i, arr, k, mid - i);
+    }
+
+    /**
+     * this helper method quick sorts the primitive range arr[start, end] with
+     * a three-way partition, recursing into the smaller side and looping on
+     * the larger one
+     * @param arr the arr that will be sorted
+     * @param rand an object that helps us generate a pseudo-random number
+     * @param start the first index of the sub-array that will be sorted
+     * @param end the last index of the sub-array that will be sorted
+     */
+    private static void quickHelp(int[] arr, Random rand, int start, int end) {
+        while (end - start >= NETWORK_MAX_SIZE) {
+            int val = arr[rand.nextInt(end - start + 1) + start];
+            int lt = start;
+            int i = start;
+            int gt = end;
+            while (i <= gt) {
+                if (arr[i] < val) {
+                    swap(arr, lt, i);
+                    lt++;
+                    i++;
+                } else if (arr[i] > val) {
+                    swap(arr, i, gt);
+                    gt--;
+                } else {
+                    i++;
+                }
+            }
+            if (lt - start < end - gt) {
+                quickHelp(arr, rand, start, lt - 1);
+                start = gt + 1;
+            } else {
+                quickHelp(arr, rand, gt + 1, end);
+                end = lt - 1;
+            }
+        }
+        networkSort(arr, start, end + 1);
+    }
+
+    /**
+     * this method helps us swap the two target elements
+     * @param arr the array of which the elements will be swapped
+     * @param idx1 the index of the first element to be swapped
+     * @param idx2 the index of the second element to be swapped
+     */
+    private static void swap(long[] arr, int idx1, int idx2) {
+        long temp = arr[idx1];
+        arr[idx1] = arr[idx2];
+        arr[idx2] = temp;
+    }
+
+    /**
+     * this helper method sorts the primitive range arr[lo, hi) bottom-up, using
+     * the same indices of the buffer as scratch space
+     * @param arr the array that will be sorted
+     * @param buffer the scratch array, at least hi long
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void bottomUpHelp(long[] arr, long[] buffer, int lo, int hi) {
+        int n = hi - lo;
+        for (int start = lo; start < hi; start += INSERTION_THRESHOLD) {
+            smallSort(arr, start, start + Math.min(INSERTION_THRESHOLD, hi - start));
+        }
+        for (int width = INSERTION_THRESHOLD; width < n; width = n - width > width ? width * 2 : n) {
+            for (int start = lo; hi - start > width; start += 2 * width) {
+                int mid = start + width;
+                mergeHelp(arr, buffer, start, mid, mid + Math.min(width, hi - mid));
+                if (hi - mid <= width) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * this helper method merges the sorted primitive runs arr[lo, mid) and
+     * arr[mid, hi), the same way as mergeHelp(T[], Comparator, T[], int, int,
+     * int)
+     * @param arr the array holding both runs
+     * @param buffer the scratch array, at least mid long
+     * @param lo the first index of the left run (inclusive)
+     * @param mid the first index of the right run
+     * @param hi the last index of the right run (exclusive)
+     */
+    private static void mergeHelp(long[] arr, long[] buffer, int lo, int mid, int hi) {
+        if (arr[mid - 1] <= arr[mid]) {
+            return;
+        }
+        System.arraycopy(arr, lo, buffer, lo, mid - lo);
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while (i < mid && j < hi) {
+            if (buffer[i] > arr[j]) {
+                arr[k] = arr[j];
+                j++;
+            } else {
+                arr[k] = buffer[i];
+                i++;
+            }
+            k++;
+        }
+        System.arraycopy(buffer, i, arr, k, mid - i);
+    }
+
+    /**
+     * this helper method quick sorts the primitive range arr[start, end] with
+     * a three-way partition, recursing into the smaller side and looping on
+     * the larger one
+     * @param arr the arr that will be sorted
+     * @param rand an object that helps us generate a pseudo-random number
+     * @param start the first index of the sub-array that will be sorted
+     * @param end the last index of the sub-array that will be sorted
+     */
+    private static void quickHelp(long[] arr, Random rand, int start, int end) {
+        while (end - start >= NETWORK_MAX_SIZE) {
+            long val = arr[rand.nextInt(end - start + 1) + start];
+            int lt = start;
+            int i = start;
+            int gt = end;
+            while (i <= gt) {
+                if (arr[i] < val) {
+                    swap(arr, lt, i);
+                    lt++;
+                    i++;
+                } else if (arr[i] > val) {
+                    swap(arr, i, gt);
+                    gt--;
+                } else {
+                    i++;
+                }
+            }
+            if (lt - start < end - gt) {
+                quickHelp(arr, rand, start, lt - 1);
+                start = gt + 1;
+            } else {
+                quickHelp(arr, rand, gt + 1, end);
+                end = lt - 1;
+            }
+        }
+        networkSort(arr, start, end + 1);
+    }
+
+    /**
+     * this method helps us swap the two target elements
+     * @param arr the array of which the elements will be swapped
+     * @param idx1 the index of the first element to be swapped
+     * @param idx2 the index of the second element to be swapped
+     */
+    private static void swap(double[] arr, int idx1, int idx2) {
+        double temp = arr[idx1];
+        arr[idx1] = arr[idx2];
+        arr[idx2] = temp;
+    }
+
+    /**
+     * this helper method sorts the primitive range arr[lo, hi) bottom-up, using
+     * the same indices of the buffer as scratch space
+     * @param arr the array that will be sorted
+     * @param buffer the scratch array, at least hi long
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void bottomUpHelp(double[] arr, double[] buffer, int lo, int hi) {
+        int n = hi - lo;
+        for (int start = lo; start < hi; start += INSERTION_THRESHOLD) {
+            insertionHelp(arr, start, start + Math.min(INSERTION_THRESHOLD, hi - start));
+        }
+        for (int width = INSERTION_THRESHOLD; width < n; width = n - width > width ? width * 2 : n) {
+            for (int start = lo; hi - start > width; start += 2 * width) {
+                int mid = start + width;
+                mergeHelp(arr, buffer, start, mid, mid + Math.min(width, hi - mid));
+                if (hi - mid <= width) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * this helper method merges the sorted primitive runs arr[lo, mid) and
+     * arr[mid, hi), the same way as mergeHelp(T[], Comparator, T[], int, int,
+     * int)
+     * @param arr the array holding both runs
+     * @param buffer the scratch array, at least mid long
+     * @param lo the first index of the left run (inclusive)
+     * @param mid the first index of the right run
+     * @param hi the last index of the right run (exclusive)
+     */
+    private static void mergeHelp(double[] arr, double[] buffer, int lo, int mid, int hi) {
+        if (Double.compare(arr[mid - 1], arr[mid]) <= 0) {
+            return;
+        }
+        System.arraycopy(arr, lo, buffer, lo, mid - lo);
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while (i < mid && j < hi) {
+            if (Double.compare(buffer[i], arr[j]) > 0) {
+                arr[k] = arr[j];
+                j++;
+            } else {
+                arr[k] = buffer[i];
+                i++;
+            }
+            k++;
+        }
+        System.arraycopy(buffer, i, arr, k, mid - i);
+    }
+
+    /**
+     * this helper method quick sorts the primitive range arr[start, end] with
+     * a three-way partition, recursing into the smaller side and looping on
+     * the larger one
+     * @param arr the arr that will be sorted
+     * @param rand an object that helps us generate a pseudo-random number
+     * @param start the first index of the sub-array that will be sorted
+     * @param end the last index of the sub-array that will be sorted
+     */
+    private static void quickHelp(double[] arr, Random rand, int start, int end) {
+        while (end - start >= 1) {
+            double val = arr[rand.nextInt(end - start + 1) + start];
+            int lt = start;
+            int i = start;
+            int gt = end;
+            while (i <= gt) {
+                if (Double.compare(arr[i], val) < 0) {
+                    swap(arr, lt, i);
+                    lt++;
+                    i++;
+                } else if (Double.compare(arr[i], val) > 0) {
+                    swap(arr, i, gt);
+                    gt--;
+                } else {
+                    i++;
+                }
+            }
+            if (lt - start < end - gt) {
+                quickHelp(arr, rand, start, lt - 1);
+                start = gt + 1;
+            } else {
+                quickHelp(arr, rand, gt + 1, end);
+                end = lt - 1;
+            }
+        }
+    }
+
+    /**
+     * this helper method insertion sorts the primitive range arr[lo, hi)
+     * @param arr the array that will be sorted
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void insertionHelp(double[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            double cur = arr[i];
+            int idx = i;
+            while (idx > lo && Double.compare(cur, arr[idx - 1]) < 0) {
+                arr[idx] = arr[idx - 1];
+                idx--;
+            }
+            arr[idx] = cur;
+        }
+    }
+
+    /**
+     * Introsort over a primitive int array, in natural order. It works the
+     * same way as introSort(T[], Comparator), except that ranges of at most
+     * NETWORK_MAX_SIZE elements are finished with a sorting network.
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void introSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        if (arr.length < 2) {
+            return;
+        }
+        introHelp(arr, 0, arr.length, 2 * log2(arr.length));
+    }
+
+    /**
+     * Introsort over a primitive long array, in natural order. It works the
+     * same way as introSort(T[], Comparator), except that ranges of at most
+     * NETWORK_MAX_SIZE elements are finished with a sorting network.
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void introSort(long[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        if (arr.length < 2) {
+            return;
+        }
+        introHelp(arr, 0, arr.length, 2 * log2(arr.length));
+    }
+
+    /**
+     * this helper method implements the actual content of introSort on the
+     * primitive range arr[lo, hi)
+     * @param arr the array that will be sorted
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     * @param depthLimit how many more levels may be partitioned before heap
+     *                   sort takes over
+     */
+    private static void introHelp(int[] arr, int lo, int hi, int depthLimit) {
+        while (hi - lo > NETWORK_MAX_SIZE) {
+            if (depthLimit == 0) {
+                heapHelp(arr, lo, hi);
+                return;
+            }
+            depthLimit--;
+
+            int pivot = arr[pivotOf(arr, lo, hi)];
+            int lt = lo;
+            int i = lo;
+            int gt = hi - 1;
+            while (i <= gt) {
+                int cur = arr[i];
+                if (cur < pivot) {
+                    arr[i] = arr[lt];
+                    arr[lt] = cur;
+                    lt++;
+                    i++;
+                } else if (cur > pivot) {
+                    arr[i] = arr[gt];
+                    arr[gt] = cur;
+                    gt--;
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - lo < hi - gt - 1) {
+                introHelp(arr, lo, lt, depthLimit);
+                lo = gt + 1;
+            } else {
+                introHelp(arr, gt + 1, hi, depthLimit);
+                hi = lt;
+            }
+        }
+        networkSort(arr, lo, hi);
+    }
+
+    /**
+     * this helper method picks the pivot index for the primitive range
+     * arr[lo, hi), the same way as pivotOf(T[], Comparator, int, int)
+     * @param arr the array holding the range
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     * @return the index of the chosen pivot
+     */
+    private static int pivotOf(int[] arr, int lo, int hi) {
+        int last = hi - 1;
+        int mid = (lo + last) >>> 1;
+        if (hi - lo > NINTHER_THRESHOLD) {
+            int step = (hi - lo) / 8;
+            int first = medianOfThree(arr, lo, lo + step, lo + 2 * step);
+            int middle = medianOfThree(arr, mid - step, mid, mid + step);
+            int end = medianOfThree(arr, last - 2 * step, last - step, last);
+            return medianOfThree(arr, first, middle, end);
+        }
+        return medianOfThree(arr, lo, mid, last);
+    }
+
+    /**
+     * this helper method finds which of three indices holds the median value
+     * @param arr the array holding the elements
+     * @param a the first index
+     * @param b the second index
+     * @param c the third index
+     * @return whichever of a, b and c holds the median
+     */
+    private static int medianOfThree(int[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) {
+                return b;
+            }
+            return arr[a] < arr[c] ? c : a;
+        }
+        if (arr[a] < arr[c]) {
+            return a;
+        }
+        return arr[b] < arr[c] ? c : b;
+    }
+
+    /**
+     * this helper method sorts a short primitive range with whichever small
+     * kernel suits its length: a sorting network up to NETWORK_MAX_SIZE
+     * elements, and branchless insertion sort above that, or plain
+     * insertion sort for any length unless NETWORK_LEAVES
+     * @param arr the array that will be sorted
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void smallSort(int[] arr, int lo, int hi) {
+        if (!NETWORK_LEAVES) {
+            insertionHelp(arr, lo, hi);
+        } else if (hi - lo <= NETWORK_MAX_SIZE) {
+            networkSort(arr, lo, hi);
+        } else {
+            branchlessInsertionHelp(arr, lo, hi);
+        }
+    }
+
+    /**
+     * this helper method sorts arr[lo, hi), at most NETWORK_MAX_SIZE long,
+     * with the sorting network for its length, or with plain insertion sort
+     * unless NETWORK_LEAVES. Every compare-exchange writes the min and the
+     * max back unconditionally, which the JIT compiles to conditional moves,
+     * so there is nothing for the branch predictor to get wrong.
+     * @param arr the array that will be sorted
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void networkSort(int[] arr, int lo, int hi) {
+        if (!NETWORK_LEAVES) {
+            insertionHelp(arr, lo, hi);
+            return;
+        }
+        int[] network = SORTING_NETWORKS[hi - lo];
+        for (int c = 0; c < network.length; c += 2) {
+            int i = lo + network[c];
+            int j = lo + network[c + 1];
+            int x = arr[i];
+            int y = arr[j];
+            arr[i] = Math.min(x, y);
+            arr[j] = Math.max(x, y);
+        }
+    }
+
+    /**
+     * this helper method is an insertion sort without data-dependent
+     * branches. To insert x into the sorted arr[lo, i), every slot j from i
+     * down to lo + 1 is set to max(arr[j - 1], min(arr[j], x)), which shifts
+     * the larger elements up by one and drops x into the gap. It always does
+     * the full O(n^2) work, so it is only worth it for short ranges, where it
+     * avoids the mispredicted loop exit of the usual insertion sort.
+     * @param arr the array that will be sorted
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void branchlessInsertionHelp(int[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int x = arr[i];
+            for (int j = i; j > lo; j--) {
+                arr[j] = Math.max(arr[j - 1], Math.min(arr[j], x));
+            }
+            arr[lo] = Math.min(arr[lo], x);
+        }
+    }
+
+    /**
+     * this helper method implements the actual content of introSort on the
+     * primitive range arr[lo, hi)
+     * @param arr the array that will be sorted
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     * @param depthLimit how many more levels may be partitioned before heap
+     *                   sort takes over
+     */
+    private static void introHelp(long[] arr, int lo, int hi, int depthLimit) {
+        while (hi - lo > NETWORK_MAX_SIZE) {
+            if (depthLimit == 0) {
+                heapHelp(arr, lo, hi);
+                return;
+            }
+            depthLimit--;
+
+            long pivot = arr[pivotOf(arr, lo, hi)];
+            int lt = lo;
+            int i = lo;
+            int gt = hi - 1;
+            while (i <= gt) {
+                long cur = arr[i];
+                if (cur < pivot) {
+                    arr[i] = arr[lt];
+                    arr[lt] = cur;
+                    lt++;
+                    i++;
+                } else if (cur > pivot) {
+                    arr[i] = arr[gt];
+                    arr[gt] = cur;
+                    gt--;
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - lo < hi - gt - 1) {
+                introHelp(arr, lo, lt, depthLimit);
+                lo = gt + 1;
+            } else {
+                introHelp(arr, gt + 1, hi, depthLimit);
+                hi = lt;
+            }
+        }
+        networkSort(arr, lo, hi);
+    }
+
+    /**
+     * this helper method picks the pivot index for the primitive range
+     * arr[lo, hi), the same way as pivotOf(T[], Comparator, int, int)
+     * @param arr the array holding the range
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     * @return the index of the chosen pivot
+     */
+    private static int pivotOf(long[] arr, int lo, int hi) {
+        int last = hi - 1;
+        int mid = (lo + last) >>> 1;
+        if (hi - lo > NINTHER_THRESHOLD) {
+            int step = (hi - lo) / 8;
+            int first = medianOfThree(arr, lo, lo + step, lo + 2 * step);
+            int middle = medianOfThree(arr, mid - step, mid, mid + step);
+            int end = medianOfThree(arr, last - 2 * step, last - step, last);
+            return medianOfThree(arr, first, middle, end);
+        }
+        return medianOfThree(arr, lo, mid, last);
+    }
+
+    /**
+     * this helper method finds which of three indices holds the median value
+     * @param arr the array holding the elements
+     * @param a the first index
+     * @param b the second index
+     * @param c the third index
+     * @return whichever of a, b and c holds the median
+     */
+    private static int medianOfThree(long[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) {
+                return b;
+            }
+            return arr[a] < arr[c] ? c : a;
+        }
+        if (arr[a] < arr[c]) {
+            return a;
+        }
+        return arr[b] < arr[c] ? c : b;
+    }
+
+    /**
+     * this helper method sorts a short primitive range with whichever small
+     * kernel suits its length: a sorting network up to NETWORK_MAX_SIZE
+     * elements, and branchless insertion sort above that, or plain
+     * insertion sort for any length unless NETWORK_LEAVES
+     * @param arr the array that will be sorted
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void smallSort(long[] arr, int lo, int hi) {
+        if (!NETWORK_LEAVES) {
+            insertionHelp(arr, lo, hi);
+        } else if (hi - lo <= NETWORK_MAX_SIZE) {
+            networkSort(arr, lo, hi);
+        } else {
+            branchlessInsertionHelp(arr, lo, hi);
+        }
+    }
+
+    /**
+     * this helper method sorts arr[lo, hi), at most NETWORK_MAX_SIZE long,
+     * with the sorting network for its length, or with plain insertion sort
+     * unless NETWORK_LEAVES. Every compare-exchange writes the min and the
+     * max back unconditionally, which the JIT compiles to conditional moves,
+     * so there is nothing for the branch predictor to get wrong.
+     * @param arr the array that will be sorted
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void networkSort(long[] arr, int lo, int hi) {
+        if (!NETWORK_LEAVES) {
+            insertionHelp(arr, lo, hi);
+            return;
+        }
+        int[] network = SORTING_NETWORKS[hi - lo];
+        for (int c = 0; c < network.length; c += 2) {
+            int i = lo + network[c];
+            int j = lo + network[c + 1];
+            long x = arr[i];
+            long y = arr[j];
+            arr[i] = Math.min(x, y);
+            arr[j] = Math.max(x, y);
+        }
+    }
+
+    /**
+     * this helper method is an insertion sort without data-dependent
+     * branches. To insert x into the sorted arr[lo, i), every slot j from i
+     * down to lo + 1 is set to max(arr[j - 1], min(arr[j], x)), which shifts
+     * the larger elements up by one and drops x into the gap. It always does
+     * the full O(n^2) work, so it is only worth it for short ranges, where it
+     * avoids the mispredicted loop exit of the usual insertion sort.
+     * @param arr the array that will be sorted
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void branchlessInsertionHelp(long[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            long x = arr[i];
+            for (int j = i; j > lo; j--) {
+                arr[j] = Math.max(arr[j - 1], Math.min(arr[j], x));
+            }
+            arr[lo] = Math.min(arr[lo], x);
+        }
+    }
+
+    /**
+     * this method builds SORTING_NETWORKS. It generates Batcher's odd-even
+     * merge sort network for NETWORK_MAX_SIZE inputs, and derives the network
+     * for each smaller length n by dropping every comparator that touches an
+     * input at or past n. That is valid because padding inputs of +infinity
+     * would never move, so those comparators never do anything.
+     * @return the flattened comparator pairs for every length up to
+     * NETWORK_MAX_SIZE
+     */
+    private static int[][] buildNetworks() {
+        ArrayList<Integer> pairs = new ArrayList<>();
+        int n = NETWORK_MAX_SIZE;
+        for (int p = 1; p < n; p <<= 1) {
+            for (int k = p; k >= 1; k >>= 1) {
+                for (int j = k % p; j + k < n; j += 2 * k) {
+                    for (int i = 0; i < Math.min(k, n - j - k); i++) {
+                        if ((i + j) / (2 * p) == (i + j + k) / (2 * p)) {
+                            pairs.add(i + j);
+                            pairs.add(i + j + k);
+                        }
+                    }
+                }
+            }
+        }
+        int[][] networks = new int[n + 1][];
+        for (int len = 0; len <= n; len++) {
+            int count = 0;
+            int[] network = new int[pairs.size()];
+            for (int c = 0; c < pairs.size(); c += 2) {
+                if (pairs.get(c + 1) < len) {
+                    network[count] = pairs.get(c);
+                    network[count + 1] = pairs.get(c + 1);
+                    count += 2;
+                }
+            }
+            networks[len] = Arrays.copyOf(network, count);
+        }
+        return networks;
+    }
+
+    /**
+     * Implement LSD (least significant digit) radix sort.
+     * Make sure you code the algorithm as you have been taught it in class.
+     * There are several versions of this algorithm and you may not get full
+     * credit if you do not implement the one we have taught you!
+     * Remember you CANNOT convert the ints to strings at any point in your
+     * code! Doing so may result in a 0 for the implementation.
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     * Have a worst case running time of:
+     * O(kn)
+     * And a best case running time of:
+     * O(kn)
+     *
+     * You are allowed to make an initial O(n) passthrough of the array to
+     * determine the number of iterations you need. The number of iterations
+     * can be determined using the number with the largest magnitude.
+     * At no point should you find yourself needing a way to exponentiate a
+     * number; any such method would be non-O(1). Think about how you can
+     * get each power of BASE naturally and efficiently as the algorithm
+     * progresses through each digit.
+     *
+     * Refer to the PDF for more information on LSD Radix Sort.
+     * You may use ArrayList or LinkedList if you wish, but it may only be
+     * used inside radix sort and any radix sort helpers. Do NOT use these
+     * classes with other sorts. However, be sure the List implementation you
+     * choose allows for stability while being as efficient as possible.
+     * Do NOT use anything from the Math class except Math.abs().
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void lsdRadixSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+
+        LinkedList<Integer>[] buckets = new LinkedList[19];
+
+        for (int i = 0; i < 19; i++) {
+            buckets[i] = new LinkedList<Integer>();
+        }
+
+        int max = 0;
+        for (int j : arr) {
+            if (j == Integer.MIN_VALUE || max == Integer.MIN_VALUE) {
+                max = Integer.MIN_VALUE;
+            } else if (Math.abs(j) > Math.abs(max)) {
+                max = j;
+            }
+        }
+        int count = 0;
+        while (max != 0) {
+            max /= 10;
+            count++;
+        }
+
+        int div = 1;
+        for (int k = 0; k < count; k++) {
+            for (int j : arr) {
+                int digit = helpDigit(j, div);
+                buckets[digit + 9].add(j);
+            }
+            int idx = 0;
+            for (LinkedList<Integer> i : buckets) {
+                while (!i.isEmpty()) {
+                    arr[idx] = i.remove();
+                    idx++;
+                }
+            }
+            div *= 10;
+        }
+    }
+
+    /**
+     * this method helps us find the target digit of the passed in number
+     * @param num the number of which we need to find the digit
+     * @param div the divisor -- by doing num/div, we can shift the target digit to the ones place
+     * @return the target digit of the passed in number
+     */
+    private static int helpDigit(int num, int div) {
+        int digit = num / div;
+        return (digit % 10);
+    }
+
+    /**
+     * Byte-wise LSD radix sort over a primitive int array.
+     * It should be:
+     * out-of-place (one scratch int array of length n)
+     * stable
+     * not adaptive
+     * Have a worst case running time of:
+     * O(n)
+     * And a best case running time of:
+     * O(n)
+     * Each pass distributes on one 8-bit digit with a counting array, so
+     * nothing is boxed and there is no division. The counts for all four
+     * digits are gathered in one pass up front, and a digit that is the same
+     * for every element is skipped without moving any data. The sign bit is
+     * flipped on the top digit so negative numbers come first.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void radixSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        radixHelp(arr, new int[arr.length]);
+    }
+
+    /**
+     * Byte-wise LSD radix sort over a primitive long array. It works the same
+     * way as radixSort(int[]), with eight digits instead of four.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void radixSort(long[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        radixHelp(arr, new long[arr.length]);
+    }
+
+    /**
+     * Byte-wise LSD radix sort over a primitive float array. Each float is
+     * mapped to an int whose signed order matches the float's order, sorted
+     * with radixSort(int[]), then mapped back. The result is ordered the same
+     * way as Arrays.sort(float[]): -0.0f before 0.0f, and NaN last.
+     * NaNs are moved to the end as they are rather than being mapped, so
+     * their sign and payload bits are kept, as Arrays.sort keeps them.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void radixSort(float[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        int nans = 0;
+        for (float f : arr) {
+            if (f != f) {
+                nans++;
+            }
+        }
+        int[] keys = new int[arr.length - nans];
+        int count = 0;
+        int front = 0;
+        for (int i = 0; i < arr.length; i++) {
+            if (arr[i] != arr[i]) {
+                arr[front++] = arr[i];
+            } else {
+                int bits = Float.floatToRawIntBits(arr[i]);
+                keys[count++] = bits ^ ((bits >> 31) & 0x7FFFFFFF);
+            }
+        }
+        System.arraycopy(arr, 0, arr, count, nans);
+        radixHelp(keys, new int[count]);
+        for (int i = 0; i < count; i++) {
+            int key = keys[i];
+            arr[i] = Float.intBitsToFloat(key ^ ((key >> 31) & 0x7FFFFFFF));
+        }
+    }
+
+    /**
+     * Byte-wise LSD radix sort over a primitive double array, done the same
+     * way as radixSort(float[]) but with long keys. The result is ordered the
+     * same way as Arrays.sort(double[]), with the bits of every NaN kept.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void radixSort(double[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        int nans = 0;
+        for (double d : arr) {
+            if (d != d) {
+                nans++;
+            }
+        }
+        long[] keys = new long[arr.length - nans];
+        int count = 0;
+        int front = 0;
+        for (int i = 0; i < arr.length; i++) {
+            if (arr[i] != arr[i]) {
+                arr[front++] = arr[i];
+            } else {
+                long bits = Double.doubleToRawLongBits(arr[i]);
+                keys[count++] = bits ^ ((bits >> 63) & 0x7FFFFFFFFFFFFFFFL);
+            }
+        }
+        System.arraycopy(arr, 0, arr, count, nans);
+        radixHelp(keys, new long[count]);
+        for (int i = 0; i < count; i++) {
+            long key = keys[i];
+            arr[i] = Double.longBitsToDouble(key ^ ((key >> 63) & 0x7FFFFFFFFFFFFFFFL));
+        }
+    }
+
+    /**
+     * this helper method implements the actual content of radixSort(int[]),
+     * bouncing the data between arr and scratch once per digit
+     * @param arr the array to be sorted
+     * @param scratch an array at least as long as arr
+     */
+    private static void radixHelp(int[] arr, int[] scratch) {
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        int[][] counts = new int[4][RADIX];
+        for (int v : arr) {
+            counts[0][v & 0xFF]++;
+            counts[1][(v >>> 8) & 0xFF]++;
+            counts[2][(v >>> 16) & 0xFF]++;
+            counts[3][(v >>> 24) ^ 0x80]++;
+        }
+
+        int[] src = arr;
+        int[] dst = scratch;
+        for (int pass = 0; pass < 4; pass++) {
+            int shift = pass * 8;
+            int flip = pass == 3 ? 0x80 : 0;
+            int[] count = counts[pass];
+            if (count[((src[0] >>> shift) & 0xFF) ^ flip] == n) {
+                continue;
+            }
+            int sum = 0;
+            for (int d = 0; d < RADIX; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < n; i++) {
+                int v = src[i];
+                int d = ((v >>> shift) & 0xFF) ^ flip;
+                dst[count[d]] = v;
+                count[d]++;
+            }
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    /**
+     * this helper method implements the actual content of radixSort(long[]),
+     * bouncing the data between arr and scratch once per digit
+     * @param arr the array to be sorted
+     * @param scratch an array at least as long as arr
+     */
+    private static void radixHelp(long[] arr, long[] scratch) {
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        int[][] counts = new int[8][RADIX];
+        for (long v : arr) {
+            for (int pass = 0; pass < 7; pass++) {
+                counts[pass][(int) (v >>> (pass * 8)) & 0xFF]++;
+            }
+            counts[7][(int) (v >>> 56) ^ 0x80]++;
+        }
+
+        long[] src = arr;
+        long[] dst = scratch;
+        for (int pass = 0; pass < 8; pass++) {
+            int shift = pass * 8;
+            int flip = pass == 7 ? 0x80 : 0;
+            int[] count = counts[pass];
+            if (count[((int) (src[0] >>> shift) & 0xFF) ^ flip] == n) {
+                continue;
+            }
+            int sum = 0;
+            for (int d = 0; d < RADIX; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < n; i++) {
+                long v = src[i];
+                int d = ((int) (v >>> shift) & 0xFF) ^ flip;
+                dst[count[d]] = v;
+                count[d]++;
+            }
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    /**
+     * Sorts arr by a long key that is computed once per element.
+     * It should be:
+     * out-of-place (O(n) auxiliary primitive arrays)
+     * stable
+     * not adaptive
+     * Have a worst case running time of:
+     * O(n)
+     * And a best case running time of:
+     * O(n)
+     * The key of every element is computed exactly once into a long array.
+     * An index permutation is then radix sorted by those keys, and the
+     * permutation is applied to arr in place. This is much cheaper than a
+     * comparison sort when the key is expensive to compute, since a
+     * Comparator would compute it O(n log n) times.
+     *
+     * @param <T>          data type to sort
+     * @param arr          the array that must be sorted after the method runs
+     * @param keyExtractor the function that computes the key of an element
+     * @throws java.lang.IllegalArgumentException if the array or keyExtractor
+     *                                            is null
+     */
+    public static <T> void sortByLongKey(T[] arr, ToLongFunction<? super T> keyExtractor) {
+        if (arr == null || keyExtractor == null) {
+            throw new java.lang.IllegalArgumentException("the array or keyExtractor is null");
+        }
+        int n = arr.length;
+        long[] keys = new long[n];
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = keyExtractor.applyAsLong(arr[i]);
+            perm[i] = i;
+        }
+        radixHelp(keys, perm, new long[n], new int[n]);
+        permute(arr, perm);
+    }
+
+    /**
+     * Sorts arr by an int key that is computed once per element. It works the
+     * same way as sortByLongKey, with half as many radix passes.
+     *
+     * @param <T>          data type to sort
+     * @param arr          the array that must be sorted after the method runs
+     * @param keyExtractor the function that computes the key of an element
+     * @throws java.lang.IllegalArgumentException if the array or keyExtractor
+     *                                            is null
+     */
+    public static <T> void sortByIntKey(T[] arr, ToIntFunction<? super T> keyExtractor) {
+        if (arr == null || keyExtractor == null) {
+            throw new java.lang.IllegalArgumentException("the array or keyExtractor is null");
+        }
+        int n = arr.length;
+        int[] keys = new int[n];
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = keyExtractor.applyAsInt(arr[i]);
+            perm[i] = i;
+        }
+        radixHelp(keys, perm, new int[n], new int[n]);
+        permute(arr, perm);
+    }
+
+    /**
+     * this helper method radix sorts keys like radixHelp(long[], long[]), and
+     * moves perm along with it so perm[i] keeps belonging to keys[i]
+     * @param keys the keys to be sorted
+     * @param perm the values that travel with the keys
+     * @param keyScratch an array at least as long as keys
+     * @param permScratch an array at least as long as keys
+     */
+    private static void radixHelp(long[] keys, int[] perm, long[] keyScratch, int[] permScratch) {
+        int n = keys.length;
+        if (n < 2) {
+            return;
+        }
+        int[][] counts = new int[8][RADIX];
+        for (long v : keys) {
+            for (int pass = 0; pass < 7; pass++) {
+                counts[pass][(int) (v >>> (pass * 8)) & 0xFF]++;
+            }
+            counts[7][(int) (v >>> 56) ^ 0x80]++;
+        }
+
+        long[] src = keys;
+        long[] dst = keyScratch;
+        int[] srcPerm = perm;
+        int[] dstPerm = permScratch;
+        for (int pass = 0; pass < 8; pass++) {
+            int shift = pass * 8;
+            int flip = pass == 7 ? 0x80 : 0;
+            int[] count = counts[pass];
+            if (count[((int) (src[0] >>> shift) & 0xFF) ^ flip] == n) {
+                continue;
+            }
+            int sum = 0;
+            for (int d = 0; d < RADIX; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < n; i++) {
+                long v = src[i];
+                int d = ((int) (v >>> shift) & 0xFF) ^ flip;
+                dst[count[d]] = v;
+                dstPerm[count[d]] = srcPerm[i];
+                count[d]++;
+            }
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+            int[] tempPerm = srcPerm;
+            srcPerm = dstPerm;
+            dstPerm = tempPerm;
+        }
+        if (src != keys) {
+            System.arraycopy(src, 0, keys, 0, n);
+            System.arraycopy(srcPerm, 0, perm, 0, n);
+        }
+    }
+
+    /**
+     * this helper method radix sorts keys like radixHelp(int[], int[]), and
+     * moves perm along with it so perm[i] keeps belonging to keys[i]
+     * @param keys the keys to be sorted
+     * @param perm the values that travel with the keys
+     * @param keyScratch an array at least as long as keys
+     * @param permScratch an array at least as long as keys
+     */
+    private static void radixHelp(int[] keys, int[] perm, int[] keyScratch, int[] permScratch) {
+        int n = keys.length;
+        if (n < 2) {
+            return;
+        }
+        int[][] counts = new int[4][RADIX];
+        for (int v : keys) {
+            counts[0][v & 0xFF]++;
+            counts[1][(v >>> 8) & 0xFF]++;
+            counts[2][(v >>> 16) & 0xFF]++;
+            counts[3][(v >>> 24) ^ 0x80]++;
+        }
+
+        int[] src = keys;
+        int[] dst = keyScratch;
+        int[] srcPerm = perm;
+        int[] dstPerm = permScratch;
+        for (int pass = 0; pass < 4; pass++) {
+            int shift = pass * 8;
+            int flip = pass == 3 ? 0x80 : 0;
+            int[] count = counts[pass];
+            if (count[((src[0] >>> shift) & 0xFF) ^ flip] == n) {
+                continue;
+            }
+            int sum = 0;
+            for (int d = 0; d < RADIX; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < n; i++) {
+                int v = src[i];
+                int d = ((v >>> shift) & 0xFF) ^ flip;
+                dst[count[d]] = v;
+                dstPerm[count[d]] = srcPerm[i];
+                count[d]++;
+            }
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+            int[] tempPerm = srcPerm;
+            srcPerm = dstPerm;
+            dstPerm = tempPerm;
+        }
+        if (src != keys) {
+            System.arraycopy(src, 0, keys, 0, n);
+            System.arraycopy(srcPerm, 0, perm, 0, n);
+        }
+    }
+
+    /**
+     * this helper method rearranges arr in place so that arr[i] ends up
+     * holding what was at arr[perm[i]]. It follows each cycle of the
+     * permutation once, marking visited entries of perm by flipping their
+     * bits, so perm is destroyed.
+     * @param arr the array to rearrange
+     * @param perm a permutation of the indices of arr
+     * @param <T> the generic type of the element
+     */
+    private static <T> void permute(T[] arr, int[] perm) {
+        for (int i = 0; i < arr.length; i++) {
+            if (perm[i] < 0) {
+                continue;
+            }
+            T first = arr[i];
+            int j = i;
+            while (true) {
+                int src = perm[j];
+                perm[j] = ~src;
+                if (src == i) {
+                    arr[j] = first;
+                    break;
+                }
+                arr[j] = arr[src];
+                j = src;
+            }
+        }
+    }
+
+    /**
+     * Parallel MSD radix sort over a primitive int array, run on the common
+     * ForkJoinPool.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void parallelMsdRadixSort(int[] arr) {
+        parallelMsdRadixSort(arr, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel MSD (most significant digit) radix sort over a primitive int
+     * array.
+     * It should be:
+     * out-of-place (one scratch int array of length n)
+     * unstable
+     * Have a worst case running time of:
+     * O(n) work
+     * The array is partitioned on its top 8-bit digit, then every bucket is
+     * partitioned on the next digit, and so on. Large ranges are counted and
+     * scattered by several tasks at once, and large buckets are sorted
+     * concurrently. Buckets of at most MSD_INSERTION_THRESHOLD elements are
+     * finished with insertion sort, and a digit shared by the whole range is
+     * skipped without moving anything. Arrays no longer than PARALLEL_CUTOFF
+     * are sorted with radixSort instead.
+     *
+     * @param arr  the array to be sorted
+     * @param pool the pool that runs the sort
+     * @throws java.lang.IllegalArgumentException if the array or pool is null
+     */
+    public static void parallelMsdRadixSort(int[] arr, ForkJoinPool pool) {
+        if (arr == null || pool == null) {
+            throw new java.lang.IllegalArgumentException("the array or pool is null");
+        }
+        if (arr.length <= PARALLEL_CUTOFF) {
+            radixHelp(arr, new int[arr.length]);
+            return;
+        }
+        pool.invoke(new IntMsdTask(arr, new int[arr.length], 0, arr.length, 24, pool.getParallelism()));
+    }
+
+    /**
+     * Parallel MSD radix sort over a primitive long array, run on the common
+     * ForkJoinPool.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void parallelMsdRadixSort(long[] arr) {
+        parallelMsdRadixSort(arr, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel MSD radix sort over a primitive long array. It works the same
+     * way as parallelMsdRadixSort(int[], ForkJoinPool), with eight digits
+     * instead of four.
+     *
+     * @param arr  the array to be sorted
+     * @param pool the pool that runs the sort
+     * @throws java.lang.IllegalArgumentException if the array or pool is null
+     */
+    public static void parallelMsdRadixSort(long[] arr, ForkJoinPool pool) {
+        if (arr == null || pool == null) {
+            throw new java.lang.IllegalArgumentException("the array or pool is null");
+        }
+        if (arr.length <= PARALLEL_CUTOFF) {
+            radixHelp(arr, new long[arr.length]);
+            return;
+        }
+        pool.invoke(new LongMsdTask(arr, new long[arr.length], 0, arr.length, 56, pool.getParallelism()));
+    }
+
+    /**
+     * this helper method sequentially MSD radix sorts arr[lo, hi), starting at
+     * the digit at shift. Every element of the range must already agree on
+     * all the digits above it.
+     * @param arr the array to be sorted
+     * @param scratch an array at least hi long
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     * @param shift the bit position of the current digit
+     */
+    private static void msdHelp(int[] arr, int[] scratch, int lo, int hi, int shift) {
+        int[] count = new int[RADIX + 1];
+        while (true) {
+            if (hi - lo <= MSD_INSERTION_THRESHOLD) {
+                insertionHelp(arr, lo, hi);
+                return;
+            }
+            int flip = shift == 24 ? 0x80 : 0;
+            Arrays.fill(count, 0);
+            for (int i = lo; i < hi; i++) {
+                count[(((arr[i] >>> shift) & 0xFF) ^ flip) + 1]++;
+            }
+            if (count[(((arr[lo] >>> shift) & 0xFF) ^ flip) + 1] == hi - lo) {
+                if (shift == 0) {
+                    return;
+                }
+                shift -= 8;
+                continue;
+            }
+            for (int d = 0; d < RADIX; d++) {
+                count[d + 1] += count[d];
+            }
+            int[] next = count.clone();
+            for (int i = lo; i < hi; i++) {
+                int v = arr[i];
+                int d = ((v >>> shift) & 0xFF) ^ flip;
+                scratch[lo + next[d]] = v;
+                next[d]++;
+            }
+            System.arraycopy(scratch, lo, arr, lo, hi - lo);
+            if (shift == 0) {
+                return;
+            }
+            for (int d = 0; d < RADIX; d++) {
+                if (count[d + 1] - count[d] > 1) {
+                    msdHelp(arr, scratch, lo + count[d], lo + count[d + 1], shift - 8);
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * this helper method sequentially MSD radix sorts arr[lo, hi), starting at
+     * the digit at shift. Every element of the range must already agree on
+     * all the digits above it.
+     * @param arr the array to be sorted
+     * @param scratch an array at least hi long
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     * @param shift the bit position of the current digit
+     */
+    private static void msdHelp(long[] arr, long[] scratch, int lo, int hi, int shift) {
+        int[] count = new int[RADIX + 1];
+        while (true) {
+            if (hi - lo <= MSD_INSERTION_THRESHOLD) {
+                insertionHelp(arr, lo, hi);
+                return;
+            }
+            int flip = shift == 56 ? 0x80 : 0;
+            Arrays.fill(count, 0);
+            for (int i = lo; i < hi; i++) {
+                count[(((int) (arr[i] >>> shift) & 0xFF) ^ flip) + 1]++;
+            }
+            if (count[(((int) (arr[lo] >>> shift) & 0xFF) ^ flip) + 1] == hi - lo) {
+                if (shift == 0) {
+                    return;
+                }
+                shift -= 8;
+                continue;
+            }
+            for (int d = 0; d < RADIX; d++) {
+                count[d + 1] += count[d];
+            }
+            int[] next = count.clone();
+            for (int i = lo; i < hi; i++) {
+                long v = arr[i];
+                int d = ((int) (v >>> shift) & 0xFF) ^ flip;
+                scratch[lo + next[d]] = v;
+                next[d]++;
+            }
+            System.arraycopy(scratch, lo, arr, lo, hi - lo);
+            if (shift == 0) {
+                return;
+            }
+            for (int d = 0; d < RADIX; d++) {
+                if (count[d + 1] - count[d] > 1) {
+                    msdHelp(arr, scratch, lo + count[d], lo + count[d + 1], shift - 8);
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * this helper method insertion sorts the primitive range arr[lo, hi)
+     * @param arr the array that will be sorted
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void insertionHelp(int[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int cur = arr[i];
+            int idx = i;
+            while (idx > lo && cur < arr[idx - 1]) {
+                arr[idx] = arr[idx - 1];
+                idx--;
+            }
+            arr[idx] = cur;
+        }
+    }
+
+    /**
+     * this helper method insertion sorts the primitive range arr[lo, hi)
+     * @param arr the array that will be sorted
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void insertionHelp(long[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            long cur = arr[i];
+            int idx = i;
+            while (idx > lo && cur < arr[idx - 1]) {
+                arr[idx] = arr[idx - 1];
+                idx--;
+            }
+            arr[idx] = cur;
+        }
+    }
+
+    /**
+     * Implement heap sort.
+     * It should be:
+     * out-of-place
+     * unstable
+     * not adaptive
+     * Have a worst case running time of:
+     * O(n log n)
+     * And a best case running time of:
+     * O(n log n)
+     * Use java.util.PriorityQueue as the heap. Note that in this
+     * PriorityQueue implementation, elements are removed from smallest
+     * element to largest element.
+     *
+     * Initialize the PriorityQueue using its build heap constructor (look at
+     * the different constructors of java.util.PriorityQueue).
+     *
+     * Return an int array with a capacity equal to the size of the list. The
+     * returned array should have the elements in the list in sorted order.
+     *
+     * @param data the data to sort
+     * @return the array with length equal to the size of the input list that
+     * holds the elements from the list is sorted order
+     * @throws java.lang.IllegalArgumentException if the data is null
+     */
+    public static int[] heapSort(List<Integer> data) {
+        if (data == null) {
+            throw new IllegalArgumentException("the input list of data is null");
+        }
+        PriorityQueue<Integer> heap = new PriorityQueue<Integer>(data);
+        int[] arr = new int[data.size()];
+        for (int i = 0; i < data.size(); i++) {
+            arr[i] = heap.remove();
+        }
+        return arr;
+    }
+
+    /**
+     * In-place heap sort over a generic array.
+     * It should be:
+     * in-place
+     * unstable
+     * not adaptive
+     * Have a worst case running time of:
+     * O(n log n)
+     * And a best case running time of:
+     * O(n log n)
+     * The array itself holds a max heap built with the BuildHeap algorithm.
+     * The max is repeatedly moved to the end, and the heap is repaired with
+     * Floyd's bottom-up downHeap.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null
+     */
+    public static <T> void heapSort(T[] arr, Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new java.lang.IllegalArgumentException("the array or comparator is null");
+        }
+        if (SortingMetrics.ENABLED) {
+            comparator = SortingMetrics.begin("heapSort", arr.length, comparator);
+        }
+        try {
+            heapHelp(arr, comparator, 0, arr.length);
+        } finally {
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.end();
+            }
+        }
+    }
+
+    /**
+     * In-place heap sort over a primitive int array. It works the same way as
+     * heapSort(T[], Comparator), with no boxing and no extra memory.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void heapSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        heapHelp(arr, 0, arr.length);
+    }
+
+    /**
+     * Partial heap sort that only extracts the k smallest elements.
+     * It should be:
+     * in-place
+     * unstable
+     * Have a worst case running time of:
+     * O(n + k log n)
+     * The whole array is made into a min heap in O(n), and only k elements
+     * are popped off it. Afterwards arr[0, k) holds the k smallest elements
+     * in ascending order; the rest of the array holds the other elements in
+     * no particular order.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array to take the smallest elements from
+     * @param k          the number of smallest elements wanted
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null, or if k is negative
+     *                                            or larger than the array
+     */
+    public static <T> void topK(T[] arr, int k, Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new java.lang.IllegalArgumentException("the array or comparator is null");
+        }
+        if (k < 0 || k > arr.length) {
+            throw new java.lang.IllegalArgumentException("k is out of the range of the array");
+        }
+        if (SortingMetrics.ENABLED) {
+            comparator = SortingMetrics.begin("topK", arr.length, comparator);
+        }
+        try {
+            // a max heap under the reversed order is a min heap
+            Comparator<T> reversed = comparator.reversed();
+            int n = arr.length;
+            buildHeap(arr, reversed, 0, n);
+            int pops = Math.min(k, n - 1);
+            for (int j = 0; j < pops; j++) {
+                popHeap(arr, reversed, 0, n - j);
+            }
+            // the smallest elements were popped to the end, last to first
+            reverse(arr, 0, n);
+        } finally {
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.end();
+            }
+        }
+    }
+
+    /**
+     * Introselect: finds the element of rank k (0-based) in place, the
+     * element that would be at index k if the array were sorted.
+     * It should be:
+     * in-place
+     * unstable
+     * Have an expected running time of:
+     * O(n)
+     * And a worst case running time of:
+     * O(n)
+     * The range holding k is narrowed with quickHelp's partition around
+     * random pivots. If two partitions in a row fail to halve the range, the
+     * remaining search uses median-of-medians pivots and a three-way
+     * partition instead, which guarantees linear time even on adversarial
+     * input or runs of equal keys. Afterwards arr[k] holds the element of
+     * rank k, nothing before it is greater and nothing after it is smaller.
+     *
+     * @param <T>        data type to select from
+     * @param arr        the array to select from
+     * @param k          the rank of the element wanted, from 0 to
+     *                   arr.length - 1
+     * @param comparator the Comparator used to compare the data in arr
+     * @return the element of rank k
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null, or if k is not an
+     *                                            index of the array
+     */
+    public static <T> T select(T[] arr, int k, Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new java.lang.IllegalArgumentException("the array or comparator is null");
+        }
+        if (k < 0 || k >= arr.length) {
+            throw new java.lang.IllegalArgumentException("k is out of the range of the array");
+        }
+        if (SortingMetrics.ENABLED) {
+            comparator = SortingMetrics.begin("select", arr.length, comparator);
+        }
+        try {
+            selectHelp(arr, comparator, 0, arr.length - 1, k);
+        } finally {
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.end();
+            }
+        }
+        return arr[k];
+    }
+
+    /**
+     * Partial sort that only puts the k smallest elements in order.
+     * It should be:
+     * in-place
+     * unstable
+     * Have a worst case running time of:
+     * O(n + k log k)
+     * The element of rank k - 1 is found with select, which leaves the k
+     * smallest elements in arr[0, k), and only that prefix is then sorted
+     * with introsort. Afterwards arr[0, k) holds the k smallest elements in
+     * ascending order; the rest of the array holds the other elements in no
+     * particular order. For small k compared to n this beats topK, whose
+     * O(k log n) pops each touch the whole heap.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array to take the smallest elements from
+     * @param k          the number of smallest elements wanted
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null, or if k is negative
+     *                                            or larger than the array
+     */
+    public static <T> void partialSort(T[] arr, int k, Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new java.lang.IllegalArgumentException("the array or comparator is null");
+        }
+        if (k < 0 || k > arr.length) {
+            throw new java.lang.IllegalArgumentException("k is out of the range of the array");
+        }
+        if (k == 0) {
+            return;
+        }
+        if (SortingMetrics.ENABLED) {
+            comparator = SortingMetrics.begin("partialSort", arr.length, comparator);
+        }
+        try {
+            selectHelp(arr, comparator, 0, arr.length - 1, k - 1);
+            if (k > 2) {
+                introHelp(arr, comparator, 0, k - 1, 2 * log2(k - 1));
+            }
+        } finally {
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.end();
+            }
+        }
+    }
+
+    /**
+     * this helper method implements the actual content of select on
+     * arr[lo, hi], which must contain index k
+     * @param arr the array to select from
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (inclusive)
+     * @param k the index whose final element is wanted
+     * @param <T> the generic type of the element
+     */
+    private static <T> void selectHelp(T[] arr, Comparator<T> comparator, int lo, int hi, int k) {
+        boolean useMedians = false;
+        int checkpoint = hi - lo + 1;
+        int rounds = 0;
+        while (hi - lo >= INTRO_INSERTION_THRESHOLD) {
+            if (!useMedians) {
+                int pivotIndex = ThreadLocalRandom.current().nextInt(lo, hi + 1);
+                int j = partition(arr, comparator, pivotIndex, lo, hi);
+                if (j == k) {
+                    return;
+                } else if (k < j) {
+                    hi = j - 1;
+                } else {
+                    lo = j + 1;
+                }
+                rounds++;
+                if (rounds == 2) {
+                    int size = hi - lo + 1;
+                    useMedians = size > checkpoint / 2;
+                    checkpoint = size;
+                    rounds = 0;
+                }
+            } else {
+                T pivot = arr[medianOfMedians(arr, comparator, lo, hi)];
+                int lt = lo;
+                int i = lo;
+                int gt = hi;
+                while (i <= gt) {
+                    int cmp = comparator.compare(arr[i], pivot);
+                    if (cmp < 0) {
+                        swap(arr, lt, i);
+                        lt++;
+                        i++;
+                    } else if (cmp > 0) {
+                        swap(arr, i, gt);
+                        gt--;
+                    } else {
+                        i++;
+                    }
+                }
+
+                // arr[lt, gt] now holds every key equal to the pivot
+                if (k < lt) {
+                    hi = lt - 1;
+                } else if (k > gt) {
+                    lo = gt + 1;
+                } else {
+                    return;
+                }
+            }
+        }
+        insertionHelp(arr, comparator, lo, hi + 1);
+    }
+
+    /**
+     * this helper method finds a pivot for arr[lo, hi] with the median of
+     * medians: every group of five is insertion sorted, their medians are
+     * moved to the front of the range, and the median of those is selected
+     * in place. At least 3/10 of the range is then on either side of it.
+     * @param arr the array holding the range
+     * @param comparator the comparator object that helps us compare elements in the arr
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (inclusive)
+     * @param <T> the generic type of the element
+     * @return the index of the chosen pivot
+     */
+    private static <T> int medianOfMedians(T[] arr, Comparator<T> comparator, int lo, int hi) {
+        int medians = lo;
+        for (int group = lo; group <= hi; group += 5) {
+            int groupEnd = Math.min(group + 5, hi + 1);
+            insertionHelp(arr, comparator, group, groupEnd);
+            swap(arr, medians, group + (groupEnd - group - 1) / 2);
+            medians++;
+        }
+        int mid = lo + (medians - lo - 1) / 2;
+        selectHelp(arr, comparator, lo, medians - 1, mid);
+        return mid;
+    }
+
+    /**
+     * Partial heap sort over a primitive int array. It works the same way as
+     * topK(T[], int, Comparator).
+     *
+     * @param arr the array to take the smallest elements from
+     * @param k   the number of smallest elements wanted
+     * @throws java.lang.IllegalArgumentException if the array is null, or if k
+     *                                            is negative or larger than
+     *                                            the array
+     */
+    public static void topK(int[] arr, int k) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("the array passed in is null");
+        }
+        if (k < 0 || k > arr.length) {
+            throw new java.lang.IllegalArgumentException("k is out of the range of the array");
+        }
+        // bitwise not reverses the order of ints, so a max heap of the
+        // flipped values is a min heap of the originals
+        int n = arr.length;
+        for (int i = 0; i < n; i++) {
+            arr[i] = ~arr[i];
+        }
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, 0, i, n);
+        }
+        int pops = Math.min(k, n - 1);
+        for (int j = 0; j < pops; j++) {
+            popHeap(arr, 0, n - j);
+        }
+        for (int lo = 0, hi = n - 1; lo <= hi; lo++, hi--) {
+            int temp = ~arr[lo];
+            arr[lo] = ~arr[hi];
+            arr[hi] = temp;
+        }
+    }
+
+    /**
+     * this helper method heap sorts the primitive range arr[lo, hi) in place
+     * using a max heap whose root is at lo
+     * @param arr the array that will be sorted
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void heapHelp(int[] arr, int lo, int hi) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, lo, i, n);
+        }
+        for (int size = n; size > 1; size--) {
+            popHeap(arr, lo, size);
+        }
+    }
+
+    /**
+     * this helper method is the downHeap step of a max heap stored in
+     * arr[base, base + size), with the children of i at 2i + 1 and 2i + 2
+     * @param arr the array holding the heap
+     * @param base the index of the root
+     * @param i the heap position to sift down from
+     * @param size the number of elements in the heap
+     */
+    private static void siftDown(int[] arr, int base, int i, int size) {
+        int cur = arr[base + i];
+        int child = 2 * i + 1;
+        while (child < size) {
+            if (child + 1 < size && arr[base + child + 1] > arr[base + child]) {
+                child++;
+            }
+            if (arr[base + child] <= cur) {
+                break;
+            }
+            arr[base + i] = arr[base + child];
+            i = child;
+            child = 2 * i + 1;
+        }
+        arr[base + i] = cur;
+    }
+
+    /**
+     * this helper method moves the root of the max heap arr[base, base + size)
+     * to its last slot and rebuilds the heap in the first size - 1 slots,
+     * using the same bottom-up downHeap as popHeap(T[], Comparator, int, int)
+     * @param arr the array holding the heap
+     * @param base the index of the root
+     * @param size the number of elements in the heap, at least 1
+     */
+    private static void popHeap(int[] arr, int base, int size) {
+        size--;
+        int cur = arr[base + size];
+        arr[base + size] = arr[base];
+        int i = 0;
+        int child = 1;
+        while (child < size) {
+            if (child + 1 < size && arr[base + child + 1] > arr[base + child]) {
+                child++;
+            }
+            arr[base + i] = arr[base + child];
+            i = child;
+            child = 2 * i + 1;
+        }
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (arr[base + parent] >= cur) {
+                break;
+            }
+            arr[base + i] = arr[base + parent];
+            i = parent;
+        }
+        arr[base + i] = cur;
+    }
+
+    /**
+     * this helper method heap sorts the primitive range arr[lo, hi) in place
+     * using a max heap whose root is at lo
+     * @param arr the array that will be sorted
+     * @param lo the first index of the range (inclusive)
+     * @param hi the last index of the range (exclusive)
+     */
+    private static void heapHelp(long[] arr, int lo, int hi) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, lo, i, n);
+        }
+        for (int size = n; size > 1; size--) {
+            popHeap(arr, lo, size);
+        }
+    }
+
+    /**
+     * this helper method is the downHeap step of a max heap stored in
+     * arr[base, base + size), with the children of i at 2i + 1 and 2i + 2
+     * @param arr the array holding the heap
+     * @param base the index of the root
+     * @param i the heap position to sift down from
+     * @param size the number of elements in the heap
+     */
+    private static void siftDown(long[] arr, int base, int i, int size) {
+        long cur = arr[base + i];
+        int child = 2 * i + 1;
+        while (child < size) {
+            if (child + 1 < size && arr[base + child + 1] > arr[base + child]) {
+                child++;
+            }
+            if (arr[base + child] <= cur) {
+                break;
+            }
+            arr[base + i] = arr[base + child];
+            i = child;
+            child = 2 * i + 1;
+        }
+        arr[base + i] = cur;
+    }
+
+    /**
+     * this helper method moves the root of the max heap arr[base, base + size)
+     * to its last slot and rebuilds the heap in the first size - 1 slots,
+     * using the same bottom-up downHeap as popHeap(T[], Comparator, int, int)
+     * @param arr the array holding the heap
+     * @param base the index of the root
+     * @param size the number of elements in the heap, at least 1
+     */
+    private static void popHeap(long[] arr, int base, int size) {
+        size--;
+        long cur = arr[base + size];
+        arr[base + size] = arr[base];
+        int i = 0;
+        int child = 1;
+        while (child < size) {
+            if (child + 1 < size && arr[base + child + 1] > arr[base + child]) {
+                child++;
+            }
+            arr[base + i] = arr[base + child];
+            i = child;
+            child = 2 * i + 1;
+        }
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (arr[base + parent] >= cur) {
+                break;
+            }
+            arr[base + i] = arr[base + parent];
+            i = parent;
+        }
+        arr[base + i] = cur;
+    }
+
+    /**
+     * External merge sort of a file of fixed-width records, using the default
+     * memory budget of DEFAULT_SORT_MEMORY bytes and a fan-in of
+     * DEFAULT_FAN_IN runs per merge.
+     *
+     * @param input      the file to sort
+     * @param output     the file the sorted records are written to
+     * @param recordSize the length of every record in bytes
+     * @param comparator the Comparator used to compare two records
+     * @throws java.lang.IllegalArgumentException if any argument is null or
+     *                                            out of range, or if the
+     *                                            input is not a whole number
+     *                                            of records
+     * @throws java.io.IOException                if reading or writing fails
+     */
+    public static void externalSort(Path input, Path output, int recordSize, Comparator<byte[]> comparator)
+            throws IOException {
+        externalSort(input, output, recordSize, comparator, DEFAULT_SORT_MEMORY, DEFAULT_FAN_IN);
+    }
+
+    /**
+     * External merge sort of a file of fixed-width records.
+     * It should be:
+     * out-of-place
+     * stable
+     * Have a worst case running time of:
+     * O(n log n)
+     * The input is read in chunks that fit in memoryBudget, counting each
+     * record as its length plus RECORD_OVERHEAD bytes. Each chunk is sorted
+     * in memory with bottomUpMergeSort and written to a temporary run file
+     * next to output. The runs are then k-way merged through a MinHeap, at
+     * most fanIn at a time, over as many passes as it takes. All file access
+     * goes through FileChannels with buffers sized to share the memory
+     * budget. Temporary files are deleted even if the sort fails.
+     *
+     * @param input        the file to sort
+     * @param output       the file the sorted records are written to; it
+     *                     must not be the input
+     * @param recordSize   the length of every record in bytes
+     * @param comparator   the Comparator used to compare two records
+     * @param memoryBudget roughly how many bytes of heap the sort may use
+     * @param fanIn        the most runs that are merged at once
+     * @throws java.lang.IllegalArgumentException if any argument is null or
+     *                                            out of range, or if the
+     *                                            input is not a whole number
+     *                                            of records
+     * @throws java.io.IOException                if reading or writing fails
+     */
+    public static void externalSort(Path input, Path output, int recordSize, Comparator<byte[]> comparator,
+                                    long memoryBudget, int fanIn) throws IOException {
+        if (input == null || output == null || comparator == null) {
+            throw new java.lang.IllegalArgumentException("the input or output or comparator is null");
+        }
+        if (recordSize < 1 || fanIn < 2 || memoryBudget < recordSize + RECORD_OVERHEAD) {
+            throw new java.lang.IllegalArgumentException("the record size, memory budget or fan-in is too small");
+        }
+        long fileSize = Files.size(input);
+        if (fileSize % recordSize != 0) {
+            throw new java.lang.IllegalArgumentException("the input is not a whole number of records");
+        }
+
+        long perRun = Math.min(fileSize / recordSize, memoryBudget / (recordSize + RECORD_OVERHEAD));
+        byte[][] records = new byte[(int) Math.min(perRun, Integer.MAX_VALUE - 8)][];
+        byte[][] scratch = new byte[records.length][];
+        int bufferSize = ioBufferSize(recordSize, memoryBudget / (fanIn + 1));
+        Path dir = output.toAbsolutePath().getParent();
+        List<Path> temps = new ArrayList<>();
+        try {
+            List<Path> runs = new ArrayList<>();
+            try (RunReader in = new RunReader(input, recordSize, bufferSize)) {
+                int count = fillChunk(in, records, recordSize);
+                while (count > 0) {
+                    bottomUpHelp(records, comparator, scratch, 0, count);
+                    Path run = Files.createTempFile(dir, "sort-run-", ".tmp");
+                    temps.add(run);
+                    runs.add(run);
+                    try (RunWriter out = new RunWriter(run, bufferSize)) {
+                        for (int i = 0; i < count; i++) {
+                            out.write(records[i]);
+                        }
+                    }
+                    count = fillChunk(in, records, recordSize);
+                }
+            }
+            records = null;
+            scratch = null;
+
+            while (runs.size() > fanIn) {
+                List<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += fanIn) {
+                    List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                    if (group.size() == 1) {
+                        merged.add(group.get(0));
+                        continue;
+                    }
+                    Path run = Files.createTempFile(dir, "sort-run-", ".tmp");
+                    temps.add(run);
+                    mergeRuns(group, run, recordSize, comparator, bufferSize);
+                    for (Path done : group) {
+                        Files.delete(done);
+                    }
+                    merged.add(run);
+                }
+                runs = merged;
+            }
+
+            if (runs.size() == 1) {
+                Files.move(runs.get(0), output, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                mergeRuns(runs, output, recordSize, comparator, bufferSize);
+            }
+        } finally {
+            for (Path temp : temps) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * this helper method reads as many records as fit into records, reusing
+     * the byte arrays that are already there
+     * @param in the reader to read from
+     * @param records the chunk to fill
+     * @param recordSize the length of every record in bytes
+     * @return the number of records read, 0 at the end of the input
+     * @throws IOException if reading fails
+     */
+    private static int fillChunk(RunReader in, byte[][] records, int recordSize) throws IOException {
+        int count = 0;
+        while (count < records.length) {
+            if (records[count] == null) {
+                records[count] = new byte[recordSize];
+            }
+            if (!in.next(records[count])) {
+                break;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * this helper method k-way merges sorted run files into output through a
+     * MinHeap holding the current record of every run. Equal records are
+     * taken from the earlier run first, which keeps the sort stable.
+     * @param runs the sorted run files, in input order
+     * @param output the file to write the merged records to
+     * @param recordSize the length of every record in bytes
+     * @param comparator the Comparator used to compare two records
+     * @param bufferSize the size of each read and write buffer
+     * @throws IOException if reading or writing fails
+     */
+    private static void mergeRuns(List<Path> runs, Path output, int recordSize, Comparator<byte[]> comparator,
+                                  int bufferSize) throws IOException {
+        ArrayList<RunCursor> cursors = new ArrayList<>();
+        try (RunWriter out = new RunWriter(output, bufferSize)) {
+            try {
+                for (int i = 0; i < runs.size(); i++) {
+                    RunCursor cursor = new RunCursor(new RunReader(runs.get(i), recordSize, bufferSize),
+                            i, comparator);
+                    cursors.add(cursor);
+                }
+                ArrayList<RunCursor> started = new ArrayList<>();
+                for (RunCursor cursor : cursors) {
+                    if (cursor.advance()) {
+                        started.add(cursor);
+                    }
+                }
+                MinHeap<RunCursor> heap = new MinHeap<>(started);
+                while (!heap.isEmpty()) {
+                    RunCursor cursor = heap.remove();
+                    out.write(cursor.record);
+                    if (cursor.advance()) {
+                        heap.add(cursor);
+                    }
+                }
+            } finally {
+                for (RunCursor cursor : cursors) {
+                    cursor.reader.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * this helper method sizes an I/O buffer: IO_BUFFER_SIZE bytes, or less
+     * if the budget is smaller, rounded down to whole records but never less
+     * than one record
+     * @param recordSize the length of every record in bytes
+     * @param budget the most bytes the buffer should take
+     * @return the buffer size in bytes
+     */
+    private static int ioBufferSize(int recordSize, long budget) {
+        long size = Math.min(IO_BUFFER_SIZE, budget);
+        return (int) Math.max(recordSize, size - size % recordSize);
+    }
+
+    /**
+     * The stack of pending runs for one timSort call, along with the merge
+     * state that is carried from one merge to the next.
+     *
+     * @param <T> the generic type of the element
+     */
+    private static final class TimSortRuns<T> {
+
+        /**
+         * The most runs that can be pending at once. The stack invariants make
+         * run lengths grow at least like the Fibonacci numbers, so this covers
+         * any array that fits in an int index.
+         */
+        private static final int MAX_PENDING = 49;
+
+        private final T[] arr;
+        private final Comparator<T> comparator;
+        private final int[] runBase = new int[MAX_PENDING];
+        private final int[] runLen = new int[MAX_PENDING];
+        private int stackSize;
+        private int minGallop = MIN_GALLOP;
+        private T[] tmp;
+
+        /**
+         * Creates an empty run stack over arr.
+         * @param arr the array being sorted
+         * @param comparator the comparator object that helps us compare elements in the arr
+         */
+        TimSortRuns(T[] arr, Comparator<T> comparator) {
+            this.arr = arr;
+            this.comparator = comparator;
+            this.tmp = (T[]) new Object[Math.min(256, arr.length >>> 1)];
+            if (SortingMetrics.ENABLED) {
+                SortingMetrics.scratch(tmp.length);
+            }
+        }
+
+        /**
+         * pushes a run onto the stack
+         * @param base the first index of the run
+         * @param len the length of the run
+         */
+        void push(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        /**
+         * merges runs until the stack invariants hold again:
+         * runLen[i - 2] > runLen[i - 1] + runLen[i] and
+         * runLen[i - 1] > runLen[i] for the top few runs
+         */
+        void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) {
+                        n--;
+                    }
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * merges every pending run until only one is left
+         */
+        void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * merges the runs at stack indices i and i + 1
+         * @param i the stack index of the first run, either the second or the
+         *          third from the top
+         */
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            // elements of run1 that are already before all of run2 stay put
+            int k = gallopRight(arr[base2], arr, base1, len1, 0, comparator);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) {
+                return;
+            }
+            // and so do elements of run2 that are after all of run1
+            len2 = gallopLeft(arr[base1 + len1 - 1], arr, base2, len2, len2 - 1, comparator);
+            if (len2 == 0) {
+                return;
+            }
+
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+        }
+
+        /**
+         * merges two adjacent runs left to right, copying the shorter first
+         * run out to tmp. arr[base1] must be greater than arr[base2], and the
+         * last element of run1 greater than every element of run2.
+         * @param base1 the first index of the first run
+         * @param len1 the length of the first run
+         * @param base2 the first index of the second run
+         * @param len2 the length of the second run
+         */
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            T[] a = arr;
+            T[] t = ensureCapacity(len1);
+            System.arraycopy(a, base1, t, 0, len1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+
+            a[dest++] = a[cursor2++];
+            if (--len2 == 0) {
+                System.arraycopy(t, cursor1, a, dest, len1);
+                return;
+            }
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = t[cursor1];
+                return;
+            }
+
+            int gallop = minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+
+                // one element at a time until one run starts winning
+                do {
+                    if (comparator.compare(a[cursor2], t[cursor1]) < 0) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest++] = t[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < gallop);
+
+                // gallop until neither run is winning by much
+                do {
+                    count1 = gallopRight(a[cursor2], t, cursor1, len1, 0, comparator);
+                    if (count1 != 0) {
+                        System.arraycopy(t, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (--len2 == 0) {
+                        break outer;
+                    }
+
+                    count2 = gallopLeft(t[cursor1], a, cursor2, len2, 0, comparator);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = t[cursor1++];
+                    if (--len1 == 1) {
+                        break outer;
+                    }
+                    gallop--;
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+                if (gallop < 0) {
+                    gallop = 0;
+                }
+                gallop += 2;
+            }
+            minGallop = gallop < 1 ? 1 : gallop;
+
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = t[cursor1];
+            } else if (len1 == 0) {
+                throw new java.lang.IllegalArgumentException("the comparator violates its general contract");
+            } else {
+                System.arraycopy(t, cursor1, a, dest, len1);
+            }
+        }
+
+        /**
+         * merges two adjacent runs right to left, copying the shorter second
+         * run out to tmp. The preconditions are the same as for mergeLo.
+         * @param base1 the first index of the first run
+         * @param len1 the length of the first run
+         * @param base2 the first index of the second run
+         * @param len2 the length of the second run
+         */
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            T[] a = arr;
+            T[] t = ensureCapacity(len2);
+            System.arraycopy(a, base2, t, 0, len2);
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+
+            a[dest--] = a[cursor1--];
+            if (--len1 == 0) {
+                System.arraycopy(t, 0, a, dest - (len2 - 1), len2);
+                return;
+            }
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = t[cursor2];
+                return;
+            }
+
+            int gallop = minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+
+                do {
+                    if (comparator.compare(t[cursor2], a[cursor1]) < 0) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest--] = t[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < gallop);
+
+                do {
+                    count1 = len1 - gallopRight(t[cursor2], a, base1, len1, len1 - 1, comparator);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (len1 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = t[cursor2--];
+                    if (--len2 == 1) {
+                        break outer;
+                    }
+
+                    count2 = len2 - gallopLeft(a[cursor1], t, 0, len2, len2 - 1, comparator);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        System.arraycopy(t, cursor2 + 1, a, dest + 1, count2);
+                        if (len2 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (--len1 == 0) {
+                        break outer;
+                    }
+                    gallop--;
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+                if (gallop < 0) {
+                    gallop = 0;
+                }
+                gallop += 2;
+            }
+            minGallop = gallop < 1 ? 1 : gallop;
+
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = t[cursor2];
+            } else if (len2 == 0) {
+                throw new java.lang.IllegalArgumentException("the comparator violates its general contract");
+            } else {
+                System.arraycopy(t, 0, a, dest - (len2 - 1), len2);
+            }
+        }
+
+        /**
+         * makes sure tmp can hold at least minCapacity elements, growing it to
+         * the next power of two (capped at half the array) if it cannot
+         * @param minCapacity the number of elements tmp must hold
+         * @return tmp
+         */
+        private T[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                int newSize = Integer.highestOneBit(minCapacity) << 1;
+                if (newSize < 0) {
+                    newSize = minCapacity;
+                } else {
+                    newSize = Math.max(minCapacity, Math.min(newSize, arr.length >>> 1));
+                }
+                tmp = (T[]) new Object[newSize];
+                if (SortingMetrics.ENABLED) {
+                    SortingMetrics.scratch(newSize);
+                }
+            }
+            return tmp;
+        }
+    }
+
+    /**
+     * The fork/join task behind parallelMergeSort. It sorts arr[lo, hi)
+     * using buffer[lo, hi) as scratch space, so sibling tasks never touch
+     * the same part of either array.
+     *
+     * @param <T> the generic type of the element
+     */
+    private static final class MergeSortTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final T[] arr;
+        private final Comparator<T> comparator;
+        private final T[] buffer;
+        private final int lo;
+        private final int hi;
+        private final int cutoff;
+
+        /**
+         * Creates a task that sorts arr[lo, hi).
+         * @param arr the array that will be sorted
+         * @param comparator the comparator object that helps us compare elements in the arr
+         * @param buffer the scratch array, as long as arr
+         * @param lo the first index of the range (inclusive)
+         * @param hi the last index of the range (exclusive)
+         * @param cutoff the longest range that is sorted without forking
+         */
+        MergeSortTask(T[] arr, Comparator<T> comparator, T[] buffer, int lo, int hi, int cutoff) {
+            this.arr = arr;
+            this.comparator = comparator;
+            this.buffer = buffer;
+            this.lo = lo;
+            this.hi = hi;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= cutoff) {
+                bottomUpHelp(arr, comparator, buffer, lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new MergeSortTask<>(arr, comparator, buffer, lo, mid, cutoff),
+                    new MergeSortTask<>(arr, comparator, buffer, mid, hi, cutoff));
+            mergeHelp(arr, comparator, buffer, lo, mid, hi);
+        }
+    }
+
+    /**
+     * The fork/join task behind parallelQuickSort. It sorts arr[start, end].
+     *
+     * @param <T> the generic type of the element
+     */
+    private static final class QuickSortTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final T[] arr;
+        private final Comparator<T> comparator;
+        private final SplittableRandom rand;
+        private final int start;
+        private final int end;
+        private final int cutoff;
+
+        /**
+         * Creates a task that sorts arr[start, end].
+         * @param arr the array that will be sorted
+         * @param comparator the comparator object that helps us compare elements in the arr
+         * @param rand the generator this task alone selects pivots with
+         * @param start the first index of the sub-array that will be sorted
+         * @param end the last index of the sub-array that will be sorted
+         * @param cutoff the longest range that is sorted without forking
+         */
+        QuickSortTask(T[] arr, Comparator<T> comparator, SplittableRandom rand, int start, int end,
+                      int cutoff) {
+            this.arr = arr;
+            this.comparator = comparator;
+            this.rand = rand;
+            this.start = start;
+            this.end = end;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start < cutoff) {
+                threeWayQuickHelp(arr, comparator, rand, start, end);
+                return;
+            }
+            T pivot = arr[rand.nextInt(end - start + 1) + start];
+            int lt = start;
+            int i = start;
+            int gt = end;
+            while (i <= gt) {
+                int cmp = comparator.compare(arr[i], pivot);
+                if (cmp < 0) {
+                    swap(arr, lt, i);
+                    lt++;
+                    i++;
+                } else if (cmp > 0) {
+                    swap(arr, i, gt);
+                    gt--;
+                } else {
+                    i++;
+                }
+            }
+
+            // arr[lt, gt] now holds every key equal to the pivot
+            SplittableRandom right = rand.split();
+            invokeAll(new QuickSortTask<>(arr, comparator, rand, start, lt - 1, cutoff),
+                    new QuickSortTask<>(arr, comparator, right, gt + 1, end, cutoff));
+        }
+    }
+
+    /**
+     * A fork/join task that runs body once for every index in [from, to),
+     * splitting the range in half until each task has a single index.
+     */
+    private static final class ForEachTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final IntConsumer body;
+        private final int from;
+        private final int to;
+
+        /**
+         * Creates a task that runs body for every index in [from, to).
+         * @param body the work to do for one index
+         * @param from the first index (inclusive)
+         * @param to the last index (exclusive)
+         */
+        ForEachTask(IntConsumer body, int from, int to) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ForEachTask(body, from, mid), new ForEachTask(body, mid, to));
+        }
+    }
+
+    /**
+     * The fork/join task behind parallelMsdRadixSort(int[]). It sorts
+     * arr[lo, hi) starting at the digit at shift, counting and scattering the
+     * range in parallel chunks while it is longer than PARALLEL_CUTOFF.
+     */
+    private static final class IntMsdTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] arr;
+        private final int[] scratch;
+        private final int lo;
+        private final int hi;
+        private final int shift;
+        private final int parallelism;
+
+        /**
+         * Creates a task that sorts arr[lo, hi).
+         * @param arr the array to be sorted
+         * @param scratch an array as long as arr
+         * @param lo the first index of the range (inclusive)
+         * @param hi the last index of the range (exclusive)
+         * @param shift the bit position of the first digit to sort on
+         * @param parallelism the number of threads in the pool
+         */
+        IntMsdTask(int[] arr, int[] scratch, int lo, int hi, int shift, int parallelism) {
+            this.arr = arr;
+            this.scratch = scratch;
+            this.lo = lo;
+            this.hi = hi;
+            this.shift = shift;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        protected void compute() {
+            int shift = this.shift;
+            int n = hi - lo;
+            int chunks = Math.max(1, Math.min(parallelism * 4, n / PARALLEL_CUTOFF));
+            int chunkLen = (n + chunks - 1) / chunks;
+            int[][] counts = new int[chunks][RADIX];
+
+            while (true) {
+                if (n <= PARALLEL_CUTOFF) {
+                    msdHelp(arr, scratch, lo, hi, shift);
+                    return;
+                }
+                int digitShift = shift;
+                int flip = shift == 24 ? 0x80 : 0;
+                invokeAll(new ForEachTask(c -> {
+                    int[] count = counts[c];
+                    Arrays.fill(count, 0);
+                    int end = Math.min(hi, lo + (c + 1) * chunkLen);
+                    for (int i = lo + c * chunkLen; i < end; i++) {
+                        count[((arr[i] >>> digitShift) & 0xFF) ^ flip]++;
+                    }
+                }, 0, chunks));
+
+                // turn the per-chunk counts into per-chunk write positions
+                int[] bucketStart = new int[RADIX + 1];
+                int sum = lo;
+                for (int d = 0; d < RADIX; d++) {
+                    bucketStart[d] = sum;
+                    for (int c = 0; c < chunks; c++) {
+                        int count = counts[c][d];
+                        counts[c][d] = sum;
+                        sum += count;
+                    }
+                }
+                bucketStart[RADIX] = hi;
+
+                int first = ((arr[lo] >>> shift) & 0xFF) ^ flip;
+                if (bucketStart[first + 1] - bucketStart[first] == n) {
+                    if (shift == 0) {
+                        return;
+                    }
+                    shift -= 8;
+                    continue;
+                }
+
+                invokeAll(new ForEachTask(c -> {
+                    int[] next = counts[c];
+                    int end = Math.min(hi, lo + (c + 1) * chunkLen);
+                    for (int i = lo + c * chunkLen; i < end; i++) {
+                        int v = arr[i];
+                        int d = ((v >>> digitShift) & 0xFF) ^ flip;
+                        scratch[next[d]] = v;
+                        next[d]++;
+                    }
+                }, 0, chunks));
+                invokeAll(new ForEachTask(c -> {
+                    int start = lo + c * chunkLen;
+                    System.arraycopy(scratch, start, arr, start, Math.min(hi, start + chunkLen) - start);
+                }, 0, chunks));
+                if (shift == 0) {
+                    return;
+                }
+
+                ArrayList<IntMsdTask> buckets = new ArrayList<>();
+                for (int d = 0; d < RADIX; d++) {
+                    if (bucketStart[d + 1] - bucketStart[d] > 1) {
+                        buckets.add(new IntMsdTask(arr, scratch, bucketStart[d], bucketStart[d + 1],
+                                shift - 8, parallelism));
+                    }
+                }
+                invokeAll(buckets);
+                return;
+            }
+        }
+    }
+
+    /**
+     * The fork/join task behind parallelMsdRadixSort(long[]). It works the
+     * same way as IntMsdTask.
+     */
+    private static final class LongMsdTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] arr;
+        private final long[] scratch;
+        private final int lo;
+        private final int hi;
+        private final int shift;
+        private final int parallelism;
+
+        /**
+         * Creates a task that sorts arr[lo, hi).
+         * @param arr the array to be sorted
+         * @param scratch an array as long as arr
+         * @param lo the first index of the range (inclusive)
+         * @param hi the last index of the range (exclusive)
+         * @param shift the bit position of the first digit to sort on
+         * @param parallelism the number of threads in the pool
+         */
+        LongMsdTask(long[] arr, long[] scratch, int lo, int hi, int shift, int parallelism) {
+            this.arr = arr;
+            this.scratch = scratch;
+            this.lo = lo;
+            this.hi = hi;
+            this.shift = shift;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        protected void compute() {
+            int shift = this.shift;
+            int n = hi - lo;
+            int chunks = Math.max(1, Math.min(parallelism * 4, n / PARALLEL_CUTOFF));
+            int chunkLen = (n + chunks - 1) / chunks;
+            int[][] counts = new int[chunks][RADIX];
+
+            while (true) {
+                if (n <= PARALLEL_CUTOFF) {
+                    msdHelp(arr, scratch, lo, hi, shift);
+                    return;
+                }
+                int digitShift = shift;
+                int flip = shift == 56 ? 0x80 : 0;
+                invokeAll(new ForEachTask(c -> {
+                    int[] count = counts[c];
+                    Arrays.fill(count, 0);
+                    int end = Math.min(hi, lo + (c + 1) * chunkLen);
+                    for (int i = lo + c * chunkLen; i < end; i++) {
+                        count[((int) (arr[i] >>> digitShift) & 0xFF) ^ flip]++;
+                    }
+                }, 0, chunks));
+
+                int[] bucketStart = new int[RADIX + 1];
+                int sum = lo;
+                for (int d = 0; d < RADIX; d++) {
+                    bucketStart[d] = sum;
+                    for (int c = 0; c < chunks; c++) {
+                        int count = counts[c][d];
+                        counts[c][d] = sum;
+                        sum += count;
+                    }
+                }
+                bucketStart[RADIX] = hi;
+
+                int first = ((int) (arr[lo] >>> shift) & 0xFF) ^ flip;
+                if (bucketStart[first + 1] - bucketStart[first] == n) {
+                    if (shift == 0) {
+                        return;
+                    }
+                    shift -= 8;
+                    continue;
+                }
+
+                invokeAll(new ForEachTask(c -> {
+                    int[] next = counts[c];
+                    int end = Math.min(hi, lo + (c + 1) * chunkLen);
+                    for (int i = lo + c * chunkLen; i < end; i++) {
+                        long v = arr[i];
+                        int d = ((int) (v >>> digitShift) & 0xFF) ^ flip;
+                        scratch[next[d]] = v;
+                        next[d]++;
+                    }
+                }, 0, chunks));
+                invokeAll(new ForEachTask(c -> {
+                    int start = lo + c * chunkLen;
+                    System.arraycopy(scratch, start, arr, start, Math.min(hi, start + chunkLen) - start);
+                }, 0, chunks));
+                if (shift == 0) {
+                    return;
+                }
+
+                ArrayList<LongMsdTask> buckets = new ArrayList<>();
+                for (int d = 0; d < RADIX; d++) {
+                    if (bucketStart[d + 1] - bucketStart[d] > 1) {
+                        buckets.add(new LongMsdTask(arr, scratch, bucketStart[d], bucketStart[d + 1],
+                                shift - 8, parallelism));
+                    }
+                }
+                invokeAll(buckets);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads fixed-width records from a file through a FileChannel and a
+     * buffer holding a whole number of records.
+     */
+    private static final class RunReader implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int recordSize;
+
+        /**
+         * Opens a reader over path.
+         * @param path the file to read
+         * @param recordSize the length of every record in bytes
+         * @param bufferSize the size of the read buffer in bytes
+         * @throws IOException if the file cannot be opened
+         */
+        RunReader(Path path, int recordSize, int bufferSize) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocate(bufferSize);
+            this.recordSize = recordSize;
+            buffer.flip();
+        }
+
+        /**
+         * reads the next record into record
+         * @param record the array to fill, recordSize long
+         * @return true if a record was read, false at the end of the file
+         * @throws IOException if reading fails or the file ends mid-record
+         */
+        boolean next(byte[] record) throws IOException {
+            if (buffer.remaining() < recordSize) {
+                buffer.compact();
+                int read = 0;
+                while (buffer.hasRemaining() && read >= 0) {
+                    read = channel.read(buffer);
+                }
+                buffer.flip();
+                if (buffer.remaining() < recordSize) {
+                    if (buffer.hasRemaining()) {
+                        throw new IOException("the file ends in the middle of a record");
+                    }
+                    return false;
+                }
+            }
+            buffer.get(record);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes records to a file through a FileChannel and a buffer.
+     */
+    private static final class RunWriter implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        /**
+         * Opens a writer over path, replacing anything already there.
+         * @param path the file to write
+         * @param bufferSize the size of the write buffer in bytes
+         * @throws IOException if the file cannot be opened
+         */
+        RunWriter(Path path, int bufferSize) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocate(bufferSize);
+        }
+
+        /**
+         * appends one record
+         * @param record the record to write
+         * @throws IOException if writing fails
+         */
+        void write(byte[] record) throws IOException {
+            if (buffer.remaining() < record.length) {
+                flush();
+            }
+            buffer.put(record);
+        }
+
+        /**
+         * writes out everything in the buffer
+         * @throws IOException if writing fails
+         */
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * The current record of one run during an external merge. Cursors are
+     * ordered by their records, and then by run number, so no two cursors
+     * are ever equal and ties go to the earlier run.
+     */
+    private static final class RunCursor implements Comparable<RunCursor> {
+
+        private final RunReader reader;
+        private final int run;
+        private final Comparator<byte[]> comparator;
+        private final byte[] record;
+
+        /**
+         * Creates a cursor over a run. It has no record until advance is
+         * called.
+         * @param reader the reader over the run file
+         * @param run the position of the run in input order
+         * @param comparator the Comparator used to compare two records
+         */
+        RunCursor(RunReader reader, int run, Comparator<byte[]> comparator) {
+            this.reader = reader;
+            this.run = run;
+            this.comparator = comparator;
+            this.record = new byte[reader.recordSize];
+        }
+
+        /**
+         * moves on to the next record of the run
+         * @return true if there was one, false if the run is used up
+         * @throws IOException if reading fails
+         */
+        boolean advance() throws IOException {
+            return reader.next(record);
+        }
+
+        @Override
+        public int compareTo(RunCursor other) {
+            int cmp = comparator.compare(record, other.record);
+            return cmp != 0 ? cmp : Integer.compare(run, other.run);
+        }
+    }
+
+    /**
+     * The iterator behind kSortedIterator. It keeps up to k + 1 elements of
+     * the source in a PriorityQueue and hands out the smallest one.
+     */
+    private static final class KSortedIterator<T> implements Iterator<T> {
+
+        private final Iterator<T> source;
+        private final int k;
+        private final PriorityQueue<T> heap;
+
+        /**
+         * Creates an iterator over a k-sorted source.
+         * @param source the k-sorted elements
+         * @param k the largest distance of any element from its place
+         * @param comparator the Comparator used to compare the elements
+         */
+        KSortedIterator(Iterator<T> source, int k, Comparator<T> comparator) {
+            this.source = source;
+            this.k = k;
+            this.heap = new PriorityQueue<>(comparator);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (heap.size() <= k && source.hasNext()) {
+                heap.add(source.next());
+            }
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new java.util.NoSuchElementException("there are no more elements in the source");
+            }
+            return heap.poll();
         }
-        return arr;
     }
 }
@@ -0,0 +1,127 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * A benchmark harness for the primitive sorts in Sorting.
+ *
+ * Usage: java SortingBenchmark [size] [rounds]
+ *
+ * Every sort is given its own copy of the same random data, is warmed up
+ * first, and is then timed over the given number of rounds. The best and
+ * median times are printed in milliseconds. The boxing lsdRadixSort is only
+ * run for sizes up to LSD_LIMIT, since it takes minutes beyond that.
+ *
+ * The sorting network leaves of the comparison sorts are benchmarked against
+ * insertion sort leaves by the JMH LeafBenchmark under jmh/.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class SortingBenchmark {
+
+    /**
+     * The largest size the original lsdRadixSort is benchmarked at.
+     */
+    private static final int LSD_LIMIT = 10_000_000;
+
+    /**
+     * The number of untimed runs before measuring each sort.
+     */
+    private static final int WARMUP_ROUNDS = 2;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the array size and the number of timed rounds, both
+     *             optional
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Random rand = new Random(42);
+
+        int[] ints = new int[size];
+        long[] longs = new long[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = rand.nextInt();
+            longs[i] = rand.nextLong();
+        }
+
+        System.out.printf("int[%d], %d rounds%n", size, rounds);
+        if (size <= LSD_LIMIT) {
+            time("lsdRadixSort", ints, rounds, Sorting::lsdRadixSort);
+        }
+        time("radixSort", ints, rounds, Sorting::radixSort);
+        time("parallelMsdRadixSort", ints, rounds, Sorting::parallelMsdRadixSort);
+        time("Arrays.sort", ints, rounds, Arrays::sort);
+        time("Arrays.parallelSort", ints, rounds, Arrays::parallelSort);
+
+        System.out.printf("long[%d], %d rounds%n", size, rounds);
+        time("radixSort", longs, rounds, Sorting::radixSort);
+        time("parallelMsdRadixSort", longs, rounds, Sorting::parallelMsdRadixSort);
+        time("Arrays.sort", longs, rounds, Arrays::sort);
+        time("Arrays.parallelSort", longs, rounds, Arrays::parallelSort);
+    }
+
+    /**
+     * Times one int sort and prints the result.
+     *
+     * @param name   the name to print
+     * @param data   the unsorted input, which is left untouched
+     * @param rounds the number of timed rounds
+     * @param sorter the sort to time
+     */
+    private static void time(String name, int[] data, int rounds, Consumer<int[]> sorter) {
+        long[] times = new long[rounds];
+        for (int r = -WARMUP_ROUNDS; r < rounds; r++) {
+            int[] copy = data.clone();
+            long start = System.nanoTime();
+            sorter.accept(copy);
+            long elapsed = System.nanoTime() - start;
+            if (r >= 0) {
+                times[r] = elapsed;
+            }
+        }
+        report(name, times);
+    }
+
+    /**
+     * Times one long sort and prints the result.
+     *
+     * @param name   the name to print
+     * @param data   the unsorted input, which is left untouched
+     * @param rounds the number of timed rounds
+     * @param sorter the sort to time
+     */
+    private static void time(String name, long[] data, int rounds, Consumer<long[]> sorter) {
+        long[] times = new long[rounds];
+        for (int r = -WARMUP_ROUNDS; r < rounds; r++) {
+            long[] copy = data.clone();
+            long start = System.nanoTime();
+            sorter.accept(copy);
+            long elapsed = System.nanoTime() - start;
+            if (r >= 0) {
+                times[r] = elapsed;
+            }
+        }
+        report(name, times);
+    }
+
+    /**
+     * Prints the best and median of a set of timings.
+     *
+     * @param name  the name to print
+     * @param times the timings in nanoseconds, which get sorted
+     */
+    private static void report(String name, long[] times) {
+        Arrays.sort(times);
+        System.out.printf("  %-24s best %9.2f ms   median %9.2f ms%n", name,
+                times[0] / 1e6, times[times.length / 2] / 1e6);
+    }
+}
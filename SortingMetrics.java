@@ -0,0 +1,468 @@
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in instrumentation for the comparison sorts in Sorting.
+ *
+ * Run the JVM with -Dsorting.metrics=true to turn it on. Every call to an
+ * instrumented sort then counts its comparisons, swaps, deepest recursion
+ * and estimated scratch bytes, and hands a Report to every registered
+ * Listener when it finishes. Running totals are also published over JMX as
+ * Sorting:type=SortingMetrics. When the property is not set, ENABLED is a
+ * constant false and the JIT removes every hook in Sorting, so there is no
+ * overhead at all.
+ *
+ * The instrumented sorts are insertionSort, cocktailSort, mergeSort,
+ * bottomUpMergeSort, timSort, quickSort, introSort, heapSort, kSortedSort,
+ * select, partialSort and topK over T[]. A sort that throws is still
+ * reported, with the counts up to the throw. Counters are kept per thread,
+ * so the parallel sorts, whose work runs on pool threads, are not covered.
+ *
+ * A CountingComparator can also be used on its own, with or without
+ * ENABLED, to count the comparisons of any sort.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public final class SortingMetrics implements SortingMetricsMXBean {
+
+    /**
+     * Whether the hooks in Sorting do anything, read once from the
+     * sorting.metrics system property.
+     */
+    static final boolean ENABLED = Boolean.getBoolean("sorting.metrics");
+
+    /**
+     * The estimated size of one array slot of scratch space, as with
+     * compressed references.
+     */
+    static final int REFERENCE_BYTES = 4;
+
+    /**
+     * The name the JMX view is registered under.
+     */
+    private static final String OBJECT_NAME = "Sorting:type=SortingMetrics";
+
+    private static final ThreadLocal<Call> CURRENT = new ThreadLocal<>();
+    private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private static final LongAdder CALLS = new LongAdder();
+    private static final LongAdder ELEMENTS = new LongAdder();
+    private static final LongAdder COMPARISONS = new LongAdder();
+    private static final LongAdder SWAPS = new LongAdder();
+    private static final LongAdder SCRATCH_BYTES = new LongAdder();
+    private static final LongAdder NANOS = new LongAdder();
+    private static final LongAdder LISTENER_FAILURES = new LongAdder();
+    private static final AtomicInteger MAX_DEPTH = new AtomicInteger();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new SortingMetrics(),
+                    new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                // another class loader got there first; the listeners still work
+            }
+        }
+    }
+
+    /**
+     * Only the JMX view is ever instantiated.
+     */
+    private SortingMetrics() {
+    }
+
+    /**
+     * Receives a Report for every instrumented sort call that finishes.
+     * Listeners are called on the thread that ran the sort, so they should
+     * return quickly. A RuntimeException thrown by a listener is caught and
+     * counted in getListenerFailures; it never reaches the caller of the
+     * sort, and the other listeners are still called.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a sort call finishes.
+         *
+         * @param report what the call did
+         */
+        void sortFinished(Report report);
+    }
+
+    /**
+     * Registers a listener for every instrumented sort call from now on.
+     * Nothing is ever reported unless ENABLED is true.
+     *
+     * @param listener the listener to add
+     * @throws java.lang.IllegalArgumentException if the listener is null
+     */
+    public static void addListener(Listener listener) {
+        if (listener == null) {
+            throw new java.lang.IllegalArgumentException("the listener is null");
+        }
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener to remove
+     * @return true if it was registered
+     */
+    public static boolean removeListener(Listener listener) {
+        return LISTENERS.remove(listener);
+    }
+
+    /**
+     * Wraps a comparator so that it counts its own calls.
+     *
+     * @param <T>        the type being compared
+     * @param comparator the comparator to wrap
+     * @return the counting comparator
+     * @throws java.lang.IllegalArgumentException if the comparator is null
+     */
+    public static <T> CountingComparator<T> counting(Comparator<T> comparator) {
+        if (comparator == null) {
+            throw new java.lang.IllegalArgumentException("the comparator is null");
+        }
+        return new CountingComparator<>(comparator);
+    }
+
+    /**
+     * this method starts an instrumented sort call on the current thread; a
+     * call made from inside another one is folded into the outer call
+     * @param algorithm the name of the sort
+     * @param length the length of the array being sorted
+     * @param comparator the comparator the caller passed in
+     * @param <T> the type being compared
+     * @return the comparator the sort should use from now on
+     */
+    static <T> Comparator<T> begin(String algorithm, int length, Comparator<T> comparator) {
+        Call call = CURRENT.get();
+        if (call != null) {
+            call.nesting++;
+            return comparator;
+        }
+        CountingComparator<T> counting = new CountingComparator<>(comparator);
+        CURRENT.set(new Call(algorithm, length, counting));
+        return counting;
+    }
+
+    /**
+     * this method finishes the sort call started by the matching begin, and
+     * reports it if it was the outermost one
+     */
+    static void end() {
+        Call call = CURRENT.get();
+        if (call == null) {
+            return;
+        }
+        call.nesting--;
+        if (call.nesting > 0) {
+            return;
+        }
+        CURRENT.remove();
+        Report report = new Report(call.algorithm, call.length, call.comparator.getCount(), call.swaps,
+            call.maxDepth, call.scratchBytes, System.nanoTime() - call.start);
+        CALLS.increment();
+        ELEMENTS.add(report.length);
+        COMPARISONS.add(report.comparisons);
+        SWAPS.add(report.swaps);
+        SCRATCH_BYTES.add(report.scratchBytes);
+        NANOS.add(report.nanos);
+        MAX_DEPTH.accumulateAndGet(report.maxDepth, Math::max);
+        for (Listener listener : LISTENERS) {
+            try {
+                listener.sortFinished(report);
+            } catch (RuntimeException e) {
+                // end runs in the sort's finally block, so a listener must not
+                // replace the sort's own outcome or starve the listeners after it
+                LISTENER_FAILURES.increment();
+            }
+        }
+    }
+
+    /**
+     * this method records one more level of recursion in the current call
+     */
+    static void enter() {
+        Call call = CURRENT.get();
+        if (call != null) {
+            call.depth++;
+            call.maxDepth = Math.max(call.maxDepth, call.depth);
+        }
+    }
+
+    /**
+     * this method records the return from one level of recursion
+     */
+    static void exit() {
+        Call call = CURRENT.get();
+        if (call != null) {
+            call.depth--;
+        }
+    }
+
+    /**
+     * this method records one swap in the current call
+     */
+    static void swapped() {
+        Call call = CURRENT.get();
+        if (call != null) {
+            call.swaps++;
+        }
+    }
+
+    /**
+     * this method records scratch space allocated by the current call
+     * @param slots the number of array slots allocated
+     */
+    static void scratch(long slots) {
+        Call call = CURRENT.get();
+        if (call != null) {
+            call.scratchBytes += slots * REFERENCE_BYTES;
+        }
+    }
+
+    @Override
+    public long getCalls() {
+        return CALLS.sum();
+    }
+
+    @Override
+    public long getElements() {
+        return ELEMENTS.sum();
+    }
+
+    @Override
+    public long getComparisons() {
+        return COMPARISONS.sum();
+    }
+
+    @Override
+    public long getSwaps() {
+        return SWAPS.sum();
+    }
+
+    @Override
+    public long getScratchBytes() {
+        return SCRATCH_BYTES.sum();
+    }
+
+    @Override
+    public int getMaxDepth() {
+        return MAX_DEPTH.get();
+    }
+
+    @Override
+    public long getTotalNanos() {
+        return NANOS.sum();
+    }
+
+    @Override
+    public long getListenerFailures() {
+        return LISTENER_FAILURES.sum();
+    }
+
+    @Override
+    public void reset() {
+        CALLS.reset();
+        ELEMENTS.reset();
+        COMPARISONS.reset();
+        SWAPS.reset();
+        SCRATCH_BYTES.reset();
+        NANOS.reset();
+        LISTENER_FAILURES.reset();
+        MAX_DEPTH.set(0);
+    }
+
+    /**
+     * A comparator that counts how many times it is called. The count is
+     * safe to update from several threads, so it also works with the
+     * parallel sorts.
+     *
+     * @param <T> the type being compared
+     */
+    public static final class CountingComparator<T> implements Comparator<T> {
+
+        private final Comparator<T> comparator;
+        private final LongAdder count = new LongAdder();
+
+        /**
+         * Wraps a comparator.
+         *
+         * @param comparator the comparator to count the calls of
+         */
+        CountingComparator(Comparator<T> comparator) {
+            this.comparator = comparator;
+        }
+
+        @Override
+        public int compare(T a, T b) {
+            count.increment();
+            return comparator.compare(a, b);
+        }
+
+        /**
+         * Returns the number of comparisons so far.
+         *
+         * @return the number of calls to compare
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Sets the count back to 0.
+         */
+        public void reset() {
+            count.reset();
+        }
+    }
+
+    /**
+     * What one sort call did. Scratch bytes are an estimate of
+     * REFERENCE_BYTES per array slot, not counting array headers.
+     */
+    public static final class Report {
+
+        private final String algorithm;
+        private final int length;
+        private final long comparisons;
+        private final long swaps;
+        private final int maxDepth;
+        private final long scratchBytes;
+        private final long nanos;
+
+        /**
+         * Creates a report.
+         *
+         * @param algorithm    the name of the sort
+         * @param length       the length of the sorted array
+         * @param comparisons  the number of comparisons
+         * @param swaps        the number of swaps
+         * @param maxDepth     the deepest recursion reached
+         * @param scratchBytes the estimated scratch bytes allocated
+         * @param nanos        the time the call took
+         */
+        Report(String algorithm, int length, long comparisons, long swaps, int maxDepth, long scratchBytes,
+               long nanos) {
+            this.algorithm = algorithm;
+            this.length = length;
+            this.comparisons = comparisons;
+            this.swaps = swaps;
+            this.maxDepth = maxDepth;
+            this.scratchBytes = scratchBytes;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the name of the sort.
+         *
+         * @return the name of the sort
+         */
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        /**
+         * Returns the length of the sorted array.
+         *
+         * @return the length of the sorted array
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Returns the number of comparisons.
+         *
+         * @return the number of comparisons
+         */
+        public long getComparisons() {
+            return comparisons;
+        }
+
+        /**
+         * Returns the number of swaps.
+         *
+         * @return the number of swaps
+         */
+        public long getSwaps() {
+            return swaps;
+        }
+
+        /**
+         * Returns the deepest recursion reached.
+         *
+         * @return the deepest recursion reached
+         */
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        /**
+         * Returns the estimated scratch bytes allocated.
+         *
+         * @return the estimated scratch bytes allocated
+         */
+        public long getScratchBytes() {
+            return scratchBytes;
+        }
+
+        /**
+         * Returns the time the call took.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return algorithm + "(n=" + length + "): " + comparisons + " comparisons, " + swaps + " swaps, depth "
+                + maxDepth + ", " + scratchBytes + " scratch bytes, " + nanos + " ns";
+        }
+    }
+
+    /**
+     * The counters of the sort call running on one thread.
+     */
+    private static final class Call {
+
+        private final String algorithm;
+        private final int length;
+        private final CountingComparator<?> comparator;
+        private final long start = System.nanoTime();
+        private int nesting = 1;
+        private int depth;
+        private int maxDepth;
+        private long swaps;
+        private long scratchBytes;
+
+        /**
+         * Starts the counters of a call.
+         *
+         * @param algorithm  the name of the sort
+         * @param length     the length of the array being sorted
+         * @param comparator the counting comparator the call uses
+         */
+        Call(String algorithm, int length, CountingComparator<?> comparator) {
+            this.algorithm = algorithm;
+            this.length = length;
+            this.comparator = comparator;
+        }
+    }
+}
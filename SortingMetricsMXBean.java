@@ -0,0 +1,77 @@
+/**
+ * The JMX view of SortingMetrics: running totals over every instrumented
+ * sort call since the JVM started or since the last reset.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public interface SortingMetricsMXBean {
+
+    /**
+     * Returns the number of sort calls that have finished.
+     *
+     * @return the number of finished sort calls
+     */
+    long getCalls();
+
+    /**
+     * Returns the number of elements passed to those calls.
+     *
+     * @return the total length of the sorted arrays
+     */
+    long getElements();
+
+    /**
+     * Returns the number of Comparator calls made by those calls.
+     *
+     * @return the total number of comparisons
+     */
+    long getComparisons();
+
+    /**
+     * Returns the number of element swaps made by those calls.
+     *
+     * @return the total number of swaps
+     */
+    long getSwaps();
+
+    /**
+     * Returns the estimated bytes of scratch space allocated by those calls.
+     *
+     * @return the total scratch bytes
+     */
+    long getScratchBytes();
+
+    /**
+     * Returns the deepest recursion reached by any single call.
+     *
+     * @return the largest recursion depth
+     */
+    int getMaxDepth();
+
+    /**
+     * Returns the time spent inside those calls.
+     *
+     * @return the total time in nanoseconds
+     */
+    long getTotalNanos();
+
+    /**
+     * Returns the number of times a Listener threw while being handed a
+     * report. Those exceptions are caught so that they cannot replace the
+     * outcome of the sort, and are only counted here.
+     *
+     * @return the total number of listener failures
+     */
+    long getListenerFailures();
+
+    /**
+     * Sets every total back to 0.
+     */
+    void reset();
+}
@@ -0,0 +1,309 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * A quick benchmark suite of the full array sorts in Sorting, across input
+ * sizes, input distributions and element types. The JMH benchmarks under
+ * jmh/ are the ones to trust for careful numbers and for allocation, which
+ * they measure with -prof gc; they also cover what this suite leaves out:
+ * the partial sorts select, partialSort and topK, kSortedSort on k-sorted
+ * input, and externalSort on files. networkSort is private, and is measured
+ * through the sorts that use it as their leaf.
+ *
+ * Usage: java SortingSuite [maxSize] [rounds] [filter]
+ *
+ * Sizes run from 10^2 up to maxSize (10^7 by default) in powers of ten. The
+ * distributions are random, sorted, reversed, few-unique (16 distinct
+ * values), organ-pipe (ascending then descending) and sawtooth (16
+ * ascending runs). The element types are Integer through a Comparator, and
+ * primitive int, long, float and double. If a filter is given, only the
+ * lines whose type or sort name contains it are run.
+ *
+ * Every measurement sorts freshly copied inputs, after WARMUP_ROUNDS untimed
+ * rounds. Small inputs are sorted many times per round so that each round
+ * covers about BATCH_ELEMENTS elements. For each case the median time per
+ * sort and the throughput in millions of elements per second are printed.
+ *
+ * The quadratic sorts, and the boxing lsdRadixSort and heapSort(List), are
+ * only run up to their own size limits, as is the boxed quickSort on
+ * few-unique input, whose two-way partition goes quadratic on runs of equal
+ * keys.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class SortingSuite {
+
+    /**
+     * The number of untimed rounds before measuring each case.
+     */
+    private static final int WARMUP_ROUNDS = 2;
+
+    /**
+     * The number of elements sorted per timed round for small sizes.
+     */
+    private static final int BATCH_ELEMENTS = 1_000_000;
+
+    /**
+     * The seed of every generated input, so runs can be compared.
+     */
+    private static final long SEED = 42;
+
+    /**
+     * The largest size the quadratic sorts are run at.
+     */
+    private static final int QUADRATIC_LIMIT = 10_000;
+
+    /**
+     * The largest size the boxing lsdRadixSort and heapSort(List) are run at.
+     */
+    private static final int BOXED_LIMIT = 1_000_000;
+
+    /**
+     * The number of distinct values in the few-unique distribution, and the
+     * number of runs in the sawtooth distribution.
+     */
+    private static final int FEW = 16;
+
+    /**
+     * The input distributions.
+     */
+    private enum Distribution {
+        RANDOM, SORTED, REVERSED, FEW_UNIQUE, ORGAN_PIPE, SAWTOOTH;
+
+        /**
+         * Generates n keys from this distribution.
+         *
+         * @param n    the number of keys
+         * @param rand the source of random keys
+         * @return the keys
+         */
+        int[] generate(int n, Random rand) {
+            int[] keys = new int[n];
+            int tooth = Math.max(1, n / FEW);
+            for (int i = 0; i < n; i++) {
+                switch (this) {
+                    case RANDOM:
+                        keys[i] = rand.nextInt();
+                        break;
+                    case SORTED:
+                        keys[i] = i;
+                        break;
+                    case REVERSED:
+                        keys[i] = n - i;
+                        break;
+                    case FEW_UNIQUE:
+                        keys[i] = rand.nextInt(FEW);
+                        break;
+                    case ORGAN_PIPE:
+                        keys[i] = i < n / 2 ? i : n - i;
+                        break;
+                    default:
+                        keys[i] = i % tooth;
+                        break;
+                }
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * One sort of one element type, with the sizes it is run at.
+     *
+     * @param <A> the array type the sort takes
+     */
+    private static final class Case<A> {
+
+        private final String name;
+        private final int limit;
+        private final int fewUniqueLimit;
+        private final Consumer<A> sort;
+
+        /**
+         * Creates a case.
+         *
+         * @param name           the name to print
+         * @param limit          the largest size to run at
+         * @param fewUniqueLimit the largest size to run at on few-unique
+         *                       input
+         * @param sort           the sort, which sorts its argument in place
+         */
+        Case(String name, int limit, int fewUniqueLimit, Consumer<A> sort) {
+            this.name = name;
+            this.limit = limit;
+            this.fewUniqueLimit = fewUniqueLimit;
+            this.sort = sort;
+        }
+    }
+
+    /**
+     * Runs the suite.
+     *
+     * @param args the largest size, the number of timed rounds and a filter,
+     *             all optional
+     */
+    public static void main(String[] args) {
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String filter = args.length > 2 ? args[2] : "";
+        Comparator<Integer> comparator = Integer::compare;
+        int all = Integer.MAX_VALUE;
+
+        List<Case<Integer[]>> boxed = new ArrayList<>();
+        boxed.add(new Case<>("insertionSort", QUADRATIC_LIMIT, all, a -> Sorting.insertionSort(a, comparator)));
+        boxed.add(new Case<>("cocktailSort", QUADRATIC_LIMIT, all, a -> Sorting.cocktailSort(a, comparator)));
+        boxed.add(new Case<>("mergeSort", all, all, a -> Sorting.mergeSort(a, comparator)));
+        boxed.add(new Case<>("bottomUpMergeSort", all, all, a -> Sorting.bottomUpMergeSort(a, comparator)));
+        boxed.add(new Case<>("timSort", all, all, a -> Sorting.timSort(a, comparator)));
+        boxed.add(new Case<>("quickSort", all, QUADRATIC_LIMIT,
+            a -> Sorting.quickSort(a, comparator, new Random(SEED))));
+        boxed.add(new Case<>("introSort", all, all, a -> Sorting.introSort(a, comparator)));
+        boxed.add(new Case<>("heapSort", all, all, a -> Sorting.heapSort(a, comparator)));
+        boxed.add(new Case<>("parallelMergeSort", all, all, a -> Sorting.parallelMergeSort(a, comparator)));
+        boxed.add(new Case<>("parallelQuickSort", all, all,
+            a -> Sorting.parallelQuickSort(a, comparator, new Random(SEED))));
+        boxed.add(new Case<>("parallelSampleSort", all, all, a -> Sorting.parallelSampleSort(a, comparator)));
+        boxed.add(new Case<>("sortByIntKey", all, all, a -> Sorting.sortByIntKey(a, Integer::intValue)));
+        boxed.add(new Case<>("sortByLongKey", all, all, a -> Sorting.sortByLongKey(a, k -> (long) k << 16)));
+        boxed.add(new Case<>("heapSort(List)", BOXED_LIMIT, BOXED_LIMIT,
+            a -> Sorting.heapSort(Arrays.asList(a))));
+        boxed.add(new Case<>("Arrays.sort", all, all, a -> Arrays.sort(a, comparator)));
+
+        List<Case<int[]>> ints = new ArrayList<>();
+        ints.add(new Case<>("insertionSort", QUADRATIC_LIMIT, all, Sorting::insertionSort));
+        ints.add(new Case<>("cocktailSort", QUADRATIC_LIMIT, all, Sorting::cocktailSort));
+        ints.add(new Case<>("mergeSort", all, all, Sorting::mergeSort));
+        ints.add(new Case<>("quickSort", all, all, a -> Sorting.quickSort(a, new Random(SEED))));
+        ints.add(new Case<>("introSort", all, all, Sorting::introSort));
+        ints.add(new Case<>("heapSort", all, all, Sorting::heapSort));
+        ints.add(new Case<>("lsdRadixSort", BOXED_LIMIT, BOXED_LIMIT, Sorting::lsdRadixSort));
+        ints.add(new Case<>("radixSort", all, all, Sorting::radixSort));
+        ints.add(new Case<>("parallelMsdRadixSort", all, all, Sorting::parallelMsdRadixSort));
+        ints.add(new Case<>("Arrays.sort", all, all, Arrays::sort));
+
+        List<Case<long[]>> longs = new ArrayList<>();
+        longs.add(new Case<>("insertionSort", QUADRATIC_LIMIT, all, Sorting::insertionSort));
+        longs.add(new Case<>("cocktailSort", QUADRATIC_LIMIT, all, Sorting::cocktailSort));
+        longs.add(new Case<>("mergeSort", all, all, Sorting::mergeSort));
+        longs.add(new Case<>("quickSort", all, all, a -> Sorting.quickSort(a, new Random(SEED))));
+        longs.add(new Case<>("introSort", all, all, Sorting::introSort));
+        longs.add(new Case<>("radixSort", all, all, Sorting::radixSort));
+        longs.add(new Case<>("parallelMsdRadixSort", all, all, Sorting::parallelMsdRadixSort));
+        longs.add(new Case<>("Arrays.sort", all, all, Arrays::sort));
+
+        List<Case<double[]>> doubles = new ArrayList<>();
+        doubles.add(new Case<>("insertionSort", QUADRATIC_LIMIT, all, Sorting::insertionSort));
+        doubles.add(new Case<>("cocktailSort", QUADRATIC_LIMIT, all, Sorting::cocktailSort));
+        doubles.add(new Case<>("mergeSort", all, all, Sorting::mergeSort));
+        doubles.add(new Case<>("quickSort", all, all, a -> Sorting.quickSort(a, new Random(SEED))));
+        doubles.add(new Case<>("radixSort", all, all, Sorting::radixSort));
+        doubles.add(new Case<>("Arrays.sort", all, all, Arrays::sort));
+
+        List<Case<float[]>> floats = new ArrayList<>();
+        floats.add(new Case<>("radixSort", all, all, Sorting::radixSort));
+        floats.add(new Case<>("Arrays.sort", all, all, Arrays::sort));
+
+        System.out.printf("%-8s %-22s %-11s %9s %12s %12s%n", "type", "sort", "input", "size",
+            "median ms", "Melem/s");
+        run("Integer", boxed, keys -> Arrays.stream(keys).boxed().toArray(Integer[]::new), Integer[]::clone,
+            maxSize, rounds, filter);
+        run("int", ints, keys -> keys, int[]::clone, maxSize, rounds, filter);
+        run("long", longs, keys -> Arrays.stream(keys).mapToLong(k -> (long) k << 16).toArray(), long[]::clone,
+            maxSize, rounds, filter);
+        run("double", doubles, keys -> Arrays.stream(keys).mapToDouble(k -> k * 0.5).toArray(), double[]::clone,
+            maxSize, rounds, filter);
+        run("float", floats, SortingSuite::toFloats, float[]::clone, maxSize, rounds, filter);
+    }
+
+    /**
+     * Runs every case of one element type over every distribution and size.
+     *
+     * @param <A>     the array type
+     * @param type    the name of the element type to print
+     * @param cases   the sorts to run
+     * @param convert turns generated int keys into an input array
+     * @param copy    copies an input array
+     * @param maxSize the largest size to run at
+     * @param rounds  the number of timed rounds
+     * @param filter  the text a type or sort name must contain to be run
+     */
+    private static <A> void run(String type, List<Case<A>> cases, Function<int[], A> convert, UnaryOperator<A> copy,
+                                int maxSize, int rounds, String filter) {
+        for (Distribution distribution : Distribution.values()) {
+            for (long length = 100; length <= maxSize; length *= 10) {
+                int size = (int) length;
+                A data = convert.apply(distribution.generate(size, new Random(SEED)));
+                for (Case<A> c : cases) {
+                    int limit = distribution == Distribution.FEW_UNIQUE ? Math.min(c.limit, c.fewUniqueLimit)
+                        : c.limit;
+                    if (size > limit || !(type.contains(filter) || c.name.contains(filter))) {
+                        continue;
+                    }
+                    measure(type, c, distribution, size, data, copy, rounds);
+                }
+            }
+        }
+    }
+
+    /**
+     * Times one case and prints the result.
+     *
+     * @param <A>          the array type
+     * @param type         the name of the element type to print
+     * @param c            the sort to time
+     * @param distribution the distribution of the input
+     * @param size         the length of the input
+     * @param data         the unsorted input, which is left untouched
+     * @param copy         copies an input array
+     * @param rounds       the number of timed rounds
+     */
+    private static <A> void measure(String type, Case<A> c, Distribution distribution, int size, A data,
+                                    UnaryOperator<A> copy, int rounds) {
+        int batch = Math.max(1, BATCH_ELEMENTS / size);
+        long[] times = new long[rounds];
+        List<A> inputs = new ArrayList<>(batch);
+        for (int r = -WARMUP_ROUNDS; r < rounds; r++) {
+            inputs.clear();
+            for (int b = 0; b < batch; b++) {
+                inputs.add(copy.apply(data));
+            }
+            long start = System.nanoTime();
+            for (A input : inputs) {
+                c.sort.accept(input);
+            }
+            long elapsed = System.nanoTime() - start;
+            if (r >= 0) {
+                times[r] = elapsed;
+            }
+        }
+        Arrays.sort(times);
+        double perSort = times[rounds / 2] / (double) batch;
+        System.out.printf("%-8s %-22s %-11s %9d %12.4f %12.2f%n", type, c.name,
+            distribution.name().toLowerCase(), size, perSort / 1e6, size * 1e3 / perSort);
+    }
+
+    /**
+     * Turns int keys into float keys with a fractional part.
+     *
+     * @param keys the keys
+     * @return the keys halved, as floats
+     */
+    private static float[] toFloats(int[] keys) {
+        float[] floats = new float[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            floats[i] = keys[i] * 0.5f;
+        }
+        return floats;
+    }
+}
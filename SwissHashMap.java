@@ -0,0 +1,393 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A hash map with open addressing in the Swiss table layout, as an
+ * alternative to LinearProbingHashMap whose probes do not touch a key until
+ * its hash has almost certainly matched.
+ *
+ * Besides the keys and values, the map keeps one control byte per slot in a
+ * dense byte array. A full slot's control byte is a 7-bit fingerprint of its
+ * key's hash, the low bits h2; EMPTY and DELETED have the top bit set. The
+ * slots are split into groups of GROUP_SIZE, and the high bits of the hash,
+ * h1, pick the group a probe starts at. A probe reads the 16 control bytes
+ * of a group as two longs and finds every byte equal to h2 at once with SWAR
+ * bit tricks, so only the keys of those slots are compared with equals. A
+ * probe ends at the first group that has an EMPTY byte, and moves on to
+ * other groups in triangular order, which visits all of them since their
+ * number is a power of two.
+ *
+ * Removing a key marks its slot EMPTY when its group still has an EMPTY
+ * byte, since no probe can have gone past that group, and DELETED
+ * otherwise. Deleted slots are reused by put and dropped by the next resize.
+ *
+ * Hashes are spread with PowerOfTwoHashMap.spread. The map grows by
+ * doubling once full and deleted slots pass MAX_LOAD_FACTOR of the table.
+ * The exceptions follow LinearProbingHashMap.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class SwissHashMap<K, V> {
+
+    /**
+     * The number of slots whose control bytes are matched together.
+     */
+    public static final int GROUP_SIZE = 16;
+
+    /**
+     * The initial capacity of the SwissHashMap when created with the default
+     * constructor.
+     */
+    public static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The max load factor of the SwissHashMap, counting deleted slots.
+     */
+    public static final double MAX_LOAD_FACTOR = 0.875;
+
+    /**
+     * The control byte of a slot that has never been used.
+     */
+    private static final byte EMPTY = (byte) 0x80;
+
+    /**
+     * The control byte of a slot whose key was removed.
+     */
+    private static final byte DELETED = (byte) 0xFE;
+
+    private static final long LSB = 0x0101010101010101L;
+    private static final long MSB = 0x8080808080808080L;
+
+    private static final VarHandle CONTROL_WORD =
+        MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private byte[] ctrl;
+    private K[] keys;
+    private V[] values;
+    private int size;
+    private int deleted;
+
+    /**
+     * Constructs a new SwissHashMap with a capacity of INITIAL_CAPACITY.
+     */
+    public SwissHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new SwissHashMap whose table has the smallest power of two
+     * length of at least initialCapacity, and no less than GROUP_SIZE.
+     *
+     * @param initialCapacity the least initial capacity of the table
+     * @throws java.lang.IllegalArgumentException if initialCapacity is not
+     *                                            positive or above 2^30
+     */
+    public SwissHashMap(int initialCapacity) {
+        if (initialCapacity < 1 || initialCapacity > 1 << 30) {
+            throw new IllegalArgumentException("the initial capacity is out of range");
+        }
+        allocate(Math.max(GROUP_SIZE, Integer.highestOneBit(initialCapacity - 1) << 1));
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If the map already has this
+     * key, its value is replaced with the new one.
+     *
+     * @param key   the key to add
+     * @param value the value to add
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     * @throws java.lang.IllegalArgumentException if key or value is null
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("either the key or the value is null");
+        }
+        int hash = PowerOfTwoHashMap.spread(key.hashCode());
+        int idx = indexOf(key, hash);
+        if (idx >= 0) {
+            V old = values[idx];
+            values[idx] = value;
+            return old;
+        }
+        if (size + deleted + 1 > (int) (ctrl.length * MAX_LOAD_FACTOR)) {
+            int length = ctrl.length;
+            if (size + 1 > (int) (length * MAX_LOAD_FACTOR) / 2) {
+                length *= 2;
+            }
+            resize(length);
+        }
+        idx = findFree(hash);
+        if (ctrl[idx] == DELETED) {
+            deleted--;
+        }
+        ctrl[idx] = (byte) (hash & 0x7F);
+        keys[idx] = key;
+        values[idx] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @return the value previously associated with the key
+     * @throws java.lang.IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException   if the key is not in the map
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null, cannot remove it");
+        }
+        int idx = indexOf(key, PowerOfTwoHashMap.spread(key.hashCode()));
+        if (idx < 0) {
+            throw new java.util.NoSuchElementException("the key is not in the hashmap");
+        }
+        V old = values[idx];
+        int group = idx & -GROUP_SIZE;
+        if ((matchEmpty(word(group)) | matchEmpty(word(group + 8))) != 0) {
+            ctrl[idx] = EMPTY;
+        } else {
+            ctrl[idx] = DELETED;
+            deleted++;
+        }
+        keys[idx] = null;
+        values[idx] = null;
+        size--;
+        return old;
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for in the map
+     * @return the value associated with the given key
+     * @throws java.lang.IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException   if the key is not in the map
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null");
+        }
+        int idx = indexOf(key, PowerOfTwoHashMap.spread(key.hashCode()));
+        if (idx < 0) {
+            throw new java.util.NoSuchElementException("the key is not in the map");
+        }
+        return values[idx];
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for in the map
+     * @return true if the key is contained within the map, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if key is null
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("the key is null");
+        }
+        return indexOf(key, PowerOfTwoHashMap.spread(key.hashCode())) >= 0;
+    }
+
+    /**
+     * Returns a Set view of the keys contained in this map.
+     *
+     * @return the set of keys in this map
+     */
+    public Set<K> keySet() {
+        HashSet<K> result = new HashSet<>();
+        for (int i = 0; i < ctrl.length; i++) {
+            if (ctrl[i] >= 0) {
+                result.add(keys[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a List view of the values contained in this map, in order of
+     * increasing index in the table.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        LinkedList<V> result = new LinkedList<>();
+        for (int i = 0; i < ctrl.length; i++) {
+            if (ctrl[i] >= 0) {
+                result.add(values[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Clears the map, going back to the INITIAL_CAPACITY.
+     */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+        deleted = 0;
+    }
+
+    /**
+     * Returns the size of the map.
+     *
+     * @return the size of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the length of the table.
+     *
+     * @return the capacity of the map
+     */
+    public int capacity() {
+        return ctrl.length;
+    }
+
+    /**
+     * this helper method probes for a key group by group, comparing only the
+     * keys whose control byte matches the fingerprint of the hash
+     * @param key the key to search for
+     * @param hash the spread hash of the key
+     * @return the index of the key, or -1 if it is not in the map
+     */
+    private int indexOf(K key, int hash) {
+        long fingerprint = (hash & 0x7F) * LSB;
+        int groupMask = (ctrl.length - 1) & -GROUP_SIZE;
+        int group = (hash >>> 7) * GROUP_SIZE & groupMask;
+        int step = 0;
+        while (true) {
+            long low = word(group);
+            long high = word(group + 8);
+            long match = matchByte(low, fingerprint);
+            while (match != 0) {
+                int idx = group + (Long.numberOfTrailingZeros(match) >>> 3);
+                if (keys[idx].equals(key)) {
+                    return idx;
+                }
+                match &= match - 1;
+            }
+            match = matchByte(high, fingerprint);
+            while (match != 0) {
+                int idx = group + 8 + (Long.numberOfTrailingZeros(match) >>> 3);
+                if (keys[idx].equals(key)) {
+                    return idx;
+                }
+                match &= match - 1;
+            }
+            if ((matchEmpty(low) | matchEmpty(high)) != 0) {
+                return -1;
+            }
+            step += GROUP_SIZE;
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /**
+     * this helper method finds the first empty or deleted slot on the probe
+     * sequence of a hash; the table must have one
+     * @param hash the spread hash of the key being added
+     * @return the index of the free slot
+     */
+    private int findFree(int hash) {
+        int groupMask = (ctrl.length - 1) & -GROUP_SIZE;
+        int group = (hash >>> 7) * GROUP_SIZE & groupMask;
+        int step = 0;
+        while (true) {
+            long match = word(group) & MSB;
+            if (match != 0) {
+                return group + (Long.numberOfTrailingZeros(match) >>> 3);
+            }
+            match = word(group + 8) & MSB;
+            if (match != 0) {
+                return group + 8 + (Long.numberOfTrailingZeros(match) >>> 3);
+            }
+            step += GROUP_SIZE;
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /**
+     * this helper method reads eight control bytes as one little-endian
+     * long, so the byte of the lowest slot is the lowest byte
+     * @param offset the index of the first slot
+     * @return the eight control bytes
+     */
+    private long word(int offset) {
+        return (long) CONTROL_WORD.get(ctrl, offset);
+    }
+
+    /**
+     * this helper method marks the top bit of each byte of word that equals
+     * the fingerprint. A byte right above a true match can be marked too,
+     * which costs one extra equals but never hides a match. EMPTY and DELETED
+     * bytes are never marked.
+     * @param word eight control bytes
+     * @param fingerprint the 7-bit fingerprint repeated in every byte
+     * @return the top bits of the matching bytes
+     */
+    private static long matchByte(long word, long fingerprint) {
+        long x = word ^ fingerprint;
+        return (x - LSB) & ~x & MSB;
+    }
+
+    /**
+     * this helper method marks the top bit of each EMPTY byte of word, which
+     * is the only control byte with the top bit set and bit 1 clear
+     * @param word eight control bytes
+     * @return the top bits of the empty bytes
+     */
+    private static long matchEmpty(long word) {
+        return word & (~word << 6) & MSB;
+    }
+
+    /**
+     * this helper method moves every entry into a new table of the given
+     * length, dropping the deleted slots
+     * @param length the new length, a power of two of at least GROUP_SIZE
+     */
+    private void resize(int length) {
+        byte[] oldCtrl = ctrl;
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(length);
+        deleted = 0;
+        for (int i = 0; i < oldCtrl.length; i++) {
+            if (oldCtrl[i] >= 0) {
+                int idx = findFree(PowerOfTwoHashMap.spread(oldKeys[i].hashCode()));
+                ctrl[idx] = oldCtrl[i];
+                keys[idx] = oldKeys[i];
+                values[idx] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * this helper method installs an empty table of the given length
+     * @param length the new length, a power of two of at least GROUP_SIZE
+     */
+    private void allocate(int length) {
+        ctrl = new byte[length];
+        Arrays.fill(ctrl, EMPTY);
+        keys = (K[]) new Object[length];
+        values = (V[]) new Object[length];
+    }
+}
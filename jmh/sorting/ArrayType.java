@@ -0,0 +1,64 @@
+package sorting;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The element types the benchmarks sort, each built from the same int keys.
+ *
+ * Long keys are shifted left 16 bits so they use more than the low word, and
+ * float and double keys are halved so they have a fractional part. Integer
+ * arrays are sorted through COMPARATOR wherever a sort takes one.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public enum ArrayType {
+    INT, LONG, FLOAT, DOUBLE, INTEGER;
+
+    /**
+     * The comparator Integer arrays are sorted with.
+     */
+    public static final Comparator<Integer> COMPARATOR = Integer::compare;
+
+    /**
+     * Builds an array of this type from int keys.
+     *
+     * @param keys the keys
+     * @return a new array of this type holding the keys in the same order
+     */
+    public Object fill(int[] keys) {
+        switch (this) {
+            case INT:
+                return keys.clone();
+            case LONG:
+                return Arrays.stream(keys).mapToLong(k -> (long) k << 16).toArray();
+            case FLOAT:
+                float[] floats = new float[keys.length];
+                for (int i = 0; i < keys.length; i++) {
+                    floats[i] = keys[i] * 0.5f;
+                }
+                return floats;
+            case DOUBLE:
+                return Arrays.stream(keys).mapToDouble(k -> k * 0.5).toArray();
+            default:
+                return Arrays.stream(keys).boxed().toArray(Integer[]::new);
+        }
+    }
+
+    /**
+     * Returns the arguments every comparison sort of this type takes after
+     * the array, which is the comparator for Integer arrays and none for
+     * primitive ones.
+     *
+     * @return the leading arguments after the array
+     */
+    public Object[] comparatorArgs() {
+        return this == INTEGER ? new Object[] {COMPARATOR} : new Object[0];
+    }
+}
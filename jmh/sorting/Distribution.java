@@ -0,0 +1,63 @@
+package sorting;
+
+import java.util.Random;
+
+/**
+ * The key distributions the benchmarks sort, the same as SortingSuite's.
+ *
+ * Few-unique input has FEW distinct keys, and sawtooth input is FEW
+ * ascending runs. Organ-pipe input ascends to the middle and then descends.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public enum Distribution {
+    RANDOM, SORTED, REVERSED, FEW_UNIQUE, ORGAN_PIPE, SAWTOOTH;
+
+    /**
+     * The number of distinct keys in few-unique input, and the number of
+     * runs in sawtooth input.
+     */
+    public static final int FEW = 16;
+
+    /**
+     * Generates n keys from this distribution.
+     *
+     * @param n    the number of keys
+     * @param seed the seed of the random keys
+     * @return the keys
+     */
+    public int[] generate(int n, long seed) {
+        Random rand = new Random(seed);
+        int[] keys = new int[n];
+        int tooth = Math.max(1, n / FEW);
+        for (int i = 0; i < n; i++) {
+            switch (this) {
+                case RANDOM:
+                    keys[i] = rand.nextInt();
+                    break;
+                case SORTED:
+                    keys[i] = i;
+                    break;
+                case REVERSED:
+                    keys[i] = n - i;
+                    break;
+                case FEW_UNIQUE:
+                    keys[i] = rand.nextInt(FEW);
+                    break;
+                case ORGAN_PIPE:
+                    keys[i] = i < n / 2 ? i : n - i;
+                    break;
+                default:
+                    keys[i] = i % tooth;
+                    break;
+            }
+        }
+        return keys;
+    }
+}
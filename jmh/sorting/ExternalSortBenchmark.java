@@ -0,0 +1,107 @@
+package sorting;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * externalSort of a file of random fixed-width records, compared as
+ * unsigned bytes.
+ *
+ * The memory budget decides how many runs there are: the default budget
+ * sorts the file in one run, and the small one spills it into many runs
+ * that are merged FAN_IN at a time. The input file is written once per
+ * trial in a temporary directory, and every invocation overwrites the same
+ * output file.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExternalSortBenchmark {
+
+    /**
+     * The most runs merged at once.
+     */
+    private static final int FAN_IN = 16;
+
+    @Param({"100000"})
+    public int records;
+
+    @Param({"16", "100"})
+    public int recordSize;
+
+    @Param({"1048576", "67108864"})
+    public long memoryBudget;
+
+    private Path directory;
+    private Path input;
+    private Path output;
+    private MethodHandle sorter;
+
+    /**
+     * Writes the input file and looks up the sort.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("external-sort");
+        input = directory.resolve("input");
+        output = directory.resolve("output");
+        byte[] bytes = new byte[records * recordSize];
+        new Random(InPlaceSortBenchmark.SEED).nextBytes(bytes);
+        Files.write(input, bytes);
+        Comparator<byte[]> comparator = Arrays::compareUnsigned;
+        sorter = Sorters.find("externalSort", input, output, recordSize, comparator, memoryBudget, FAN_IN);
+    }
+
+    /**
+     * Sorts the input file into the output file.
+     *
+     * @throws Throwable anything the sort throws
+     */
+    @Benchmark
+    public void externalSort() throws Throwable {
+        sorter.invokeExact((Object) input);
+    }
+
+    /**
+     * Deletes the input and output files.
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+        Files.deleteIfExists(directory);
+    }
+}
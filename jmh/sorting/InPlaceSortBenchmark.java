@@ -0,0 +1,76 @@
+package sorting;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The timed body shared by the benchmarks that sort one array in place.
+ *
+ * A subclass generates the input and looks up the sort in its setup, and
+ * passes both to prepare. Every invocation first copies the input into a
+ * work array that was allocated once, so the copy is the only overhead
+ * next to the sort, and the allocation reported by -prof gc is the sort's
+ * own.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class InPlaceSortBenchmark {
+
+    /**
+     * The seed of every generated input, so runs can be compared.
+     */
+    protected static final long SEED = 42;
+
+    private Object data;
+    private Object work;
+    private int length;
+    private MethodHandle sorter;
+
+    /**
+     * Sets the input and the sort of the trial.
+     *
+     * @param input the unsorted input, which is left untouched
+     * @param sort  a handle of type (Object)void that sorts its argument in
+     *              place, as returned by Sorters.find
+     */
+    protected void prepare(Object input, MethodHandle sort) {
+        data = input;
+        length = java.lang.reflect.Array.getLength(input);
+        work = java.lang.reflect.Array.newInstance(input.getClass().getComponentType(), length);
+        sorter = sort;
+    }
+
+    /**
+     * Sorts a fresh copy of the input.
+     *
+     * @return the sorted copy, so the sort cannot be eliminated
+     * @throws Throwable anything the sort throws
+     */
+    @Benchmark
+    public Object sort() throws Throwable {
+        System.arraycopy(data, 0, work, 0, length);
+        sorter.invokeExact(work);
+        return work;
+    }
+}
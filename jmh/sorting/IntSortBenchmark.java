@@ -0,0 +1,37 @@
+package sorting;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * The sorts Sorting has for int[] only: heapSort, and lsdRadixSort, which
+ * boxes every element into its buckets.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class IntSortBenchmark extends InPlaceSortBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"heapSort", "lsdRadixSort"})
+    public String algorithm;
+
+    /**
+     * Generates the input and looks up the sort.
+     */
+    @Setup
+    public void setup() {
+        Object input = ArrayType.INT.fill(distribution.generate(size, SEED));
+        prepare(input, Sorters.find(algorithm, input));
+    }
+}
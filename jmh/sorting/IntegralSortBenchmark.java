@@ -0,0 +1,40 @@
+package sorting;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * The sorts Sorting has for int[] and long[] only: introSort and
+ * parallelMsdRadixSort, against Arrays.parallelSort.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class IntegralSortBenchmark extends InPlaceSortBenchmark {
+
+    @Param({"INT", "LONG"})
+    public ArrayType type;
+
+    @Param
+    public Distribution distribution;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"introSort", "parallelMsdRadixSort", "Arrays.parallelSort"})
+    public String algorithm;
+
+    /**
+     * Generates the input and looks up the sort.
+     */
+    @Setup
+    public void setup() {
+        Object input = type.fill(distribution.generate(size, SEED));
+        prepare(input, Sorters.find(algorithm, input));
+    }
+}
@@ -0,0 +1,56 @@
+package sorting;
+
+import java.util.Random;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * kSortedSort on Integer arrays in which every element is at most k places
+ * from where it belongs, against timSort, which is adaptive too.
+ *
+ * The input is 0 to size - 1 in order, with every block of k + 1 elements
+ * shuffled, so no element leaves its block.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class KSortedSortBenchmark extends InPlaceSortBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"4", "64", "1024"})
+    public int k;
+
+    @Param({"kSortedSort", "timSort"})
+    public String algorithm;
+
+    /**
+     * Generates the input and looks up the sort.
+     */
+    @Setup
+    public void setup() {
+        Random rand = new Random(SEED);
+        Integer[] input = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            input[i] = i;
+        }
+        for (int block = 0; block < size; block += k + 1) {
+            int end = Math.min(size, block + k + 1);
+            for (int i = end - 1; i > block; i--) {
+                int j = block + rand.nextInt(i - block + 1);
+                Integer temp = input[i];
+                input[i] = input[j];
+                input[j] = temp;
+            }
+        }
+        Object[] args = algorithm.equals("kSortedSort") ? new Object[] {k, ArrayType.COMPARATOR}
+            : new Object[] {ArrayType.COMPARATOR};
+        prepare(input, Sorters.find(algorithm, input, args));
+    }
+}
@@ -0,0 +1,118 @@
+package sorting;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The int and long sorts with their sorting network leaves against the same
+ * sorts with plain insertion sort leaves.
+ *
+ * Sorting reads the sorting.insertionLeaves system property into a static
+ * final flag, so the two benchmark methods run in their own forks, one with
+ * the property set, and the leaf costs nothing to select. Every invocation
+ * sorts about TOTAL elements split into arrays of the given size, from
+ * fresh copies, so short arrays, where the leaf is most of the work, are
+ * timed over the same number of elements as long ones.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LeafBenchmark {
+
+    /**
+     * The number of elements sorted per invocation.
+     */
+    private static final int TOTAL = 1 << 16;
+
+    @Param({"INT", "LONG"})
+    public ArrayType type;
+
+    @Param({"RANDOM"})
+    public Distribution distribution;
+
+    @Param({"8", "16", "32", "64", "65536"})
+    public int size;
+
+    @Param({"introSort", "quickSort", "mergeSort"})
+    public String algorithm;
+
+    private Object[] data;
+    private Object[] work;
+    private MethodHandle sorter;
+
+    /**
+     * Generates the inputs and looks up the sort.
+     */
+    @Setup
+    public void setup() {
+        int count = Math.max(1, TOTAL / size);
+        data = new Object[count];
+        work = new Object[count];
+        for (int i = 0; i < count; i++) {
+            data[i] = type.fill(distribution.generate(size, InPlaceSortBenchmark.SEED + i));
+            work[i] = type.fill(new int[size]);
+        }
+        Object[] args = algorithm.equals("quickSort") ? new Object[] {new Random(InPlaceSortBenchmark.SEED)}
+            : new Object[0];
+        sorter = Sorters.find(algorithm, data[0], args);
+    }
+
+    /**
+     * Sorts every input with sorting network leaves.
+     *
+     * @return the sorted copies
+     * @throws Throwable anything the sort throws
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dsorting.insertionLeaves=false")
+    public Object networkLeaves() throws Throwable {
+        return sortAll();
+    }
+
+    /**
+     * Sorts every input with insertion sort leaves.
+     *
+     * @return the sorted copies
+     * @throws Throwable anything the sort throws
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dsorting.insertionLeaves=true")
+    public Object insertionLeaves() throws Throwable {
+        return sortAll();
+    }
+
+    /**
+     * this helper method copies every input into its work array and sorts it
+     * @return the work arrays
+     * @throws Throwable anything the sort throws
+     */
+    private Object sortAll() throws Throwable {
+        for (int i = 0; i < data.length; i++) {
+            System.arraycopy(data[i], 0, work[i], 0, size);
+            sorter.invokeExact(work[i]);
+        }
+        return work;
+    }
+}
@@ -0,0 +1,57 @@
+package sorting;
+
+import java.util.Random;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * The sorts Sorting has for object arrays only, on Integer arrays, against
+ * Arrays.parallelSort. The comparison sorts use ArrayType.COMPARATOR, and
+ * sortByIntKey and sortByLongKey extract the key from each Integer.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class ObjectSortBenchmark extends InPlaceSortBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"bottomUpMergeSort", "timSort", "introSort", "heapSort", "parallelMergeSort", "parallelQuickSort",
+        "parallelSampleSort", "sortByIntKey", "sortByLongKey", "Arrays.parallelSort"})
+    public String algorithm;
+
+    /**
+     * Generates the input and looks up the sort.
+     */
+    @Setup
+    public void setup() {
+        Object input = ArrayType.INTEGER.fill(distribution.generate(size, SEED));
+        Object[] args;
+        switch (algorithm) {
+            case "parallelQuickSort":
+                args = new Object[] {ArrayType.COMPARATOR, new Random(SEED)};
+                break;
+            case "sortByIntKey":
+                args = new Object[] {(ToIntFunction<Integer>) Integer::intValue};
+                break;
+            case "sortByLongKey":
+                args = new Object[] {(ToLongFunction<Integer>) k -> (long) k << 16};
+                break;
+            default:
+                args = ArrayType.INTEGER.comparatorArgs();
+                break;
+        }
+        prepare(input, Sorters.find(algorithm, input, args));
+    }
+}
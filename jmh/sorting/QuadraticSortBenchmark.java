@@ -0,0 +1,40 @@
+package sorting;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * The quadratic sorts of Sorting, for every element type, over every
+ * distribution, at the sizes they are meant for.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class QuadraticSortBenchmark extends InPlaceSortBenchmark {
+
+    @Param({"INT", "LONG", "DOUBLE", "INTEGER"})
+    public ArrayType type;
+
+    @Param
+    public Distribution distribution;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"insertionSort", "cocktailSort"})
+    public String algorithm;
+
+    /**
+     * Generates the input and looks up the sort.
+     */
+    @Setup
+    public void setup() {
+        Object input = type.fill(distribution.generate(size, SEED));
+        prepare(input, Sorters.find(algorithm, input, type.comparatorArgs()));
+    }
+}
@@ -0,0 +1,40 @@
+package sorting;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * radixSort for every primitive type it takes, including the float[] and
+ * double[] overloads that sort by the raw bits, against Arrays.sort.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class RadixSortBenchmark extends InPlaceSortBenchmark {
+
+    @Param({"INT", "LONG", "FLOAT", "DOUBLE"})
+    public ArrayType type;
+
+    @Param
+    public Distribution distribution;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"radixSort", "Arrays.sort"})
+    public String algorithm;
+
+    /**
+     * Generates the input and looks up the sort.
+     */
+    @Setup
+    public void setup() {
+        Object input = type.fill(distribution.generate(size, SEED));
+        prepare(input, Sorters.find(algorithm, input));
+    }
+}
@@ -0,0 +1,41 @@
+package sorting;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * select and partialSort on Integer arrays, for a few values of k. Both
+ * rearrange the array in place, so every invocation starts from a fresh
+ * copy like the full sorts.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class SelectionBenchmark extends InPlaceSortBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"10", "500"})
+    public int k;
+
+    @Param({"select", "partialSort"})
+    public String algorithm;
+
+    /**
+     * Generates the input and looks up the sort.
+     */
+    @Setup
+    public void setup() {
+        Object input = ArrayType.INTEGER.fill(distribution.generate(size, SEED));
+        prepare(input, Sorters.find(algorithm, input, k, ArrayType.COMPARATOR));
+    }
+}
@@ -0,0 +1,51 @@
+package sorting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * The comparison sorts Sorting has for every element type, against
+ * Arrays.sort, over every distribution.
+ *
+ * Boxed quickSort partitions two ways, so it goes quadratic on few-unique
+ * input, which is why the default sizes stop at 10^5.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class SortBenchmark extends InPlaceSortBenchmark {
+
+    @Param({"INT", "LONG", "DOUBLE", "INTEGER"})
+    public ArrayType type;
+
+    @Param
+    public Distribution distribution;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"mergeSort", "quickSort", "Arrays.sort"})
+    public String algorithm;
+
+    /**
+     * Generates the input and looks up the sort.
+     */
+    @Setup
+    public void setup() {
+        Object input = type.fill(distribution.generate(size, SEED));
+        List<Object> args = new ArrayList<>(Arrays.asList(type.comparatorArgs()));
+        if (algorithm.equals("quickSort")) {
+            args.add(new Random(SEED));
+        }
+        prepare(input, Sorters.find(algorithm, input, args.toArray()));
+    }
+}
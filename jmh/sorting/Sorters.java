@@ -0,0 +1,108 @@
+package sorting;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Looks up the sorts the benchmarks run as method handles.
+ *
+ * Sorting is in the default package, which JMH does not allow benchmarks
+ * in, and a named package cannot refer to it in source. The benchmarks
+ * therefore reach it by reflection, once per trial in their setup, and call
+ * the resulting handles with invokeExact, which costs a few nanoseconds at
+ * most next to the sorts themselves.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+final class Sorters {
+
+    /**
+     * The prefix of an algorithm name that refers to java.util.Arrays
+     * rather than Sorting.
+     */
+    private static final String ARRAYS = "Arrays.";
+
+    private static final Class<?> SORTING = load("Sorting");
+
+    /**
+     * Not instantiable.
+     */
+    private Sorters() {
+    }
+
+    /**
+     * Finds the public static sort that takes the array followed by args,
+     * and binds args to it.
+     *
+     * @param algorithm the name of a method of Sorting, or of Arrays if
+     *                  prefixed with "Arrays."
+     * @param array     an array of the type the sort is run on
+     * @param args      the arguments the sort takes after the array
+     * @return a handle of type (Object)void that sorts its argument,
+     * ignoring any result of the sort
+     * @throws java.lang.IllegalArgumentException if there is no such sort
+     */
+    static MethodHandle find(String algorithm, Object array, Object... args) {
+        Class<?> owner = SORTING;
+        String name = algorithm;
+        if (algorithm.startsWith(ARRAYS)) {
+            owner = java.util.Arrays.class;
+            name = algorithm.substring(ARRAYS.length());
+        }
+        for (Method method : owner.getMethods()) {
+            if (method.getName().equals(name) && Modifier.isStatic(method.getModifiers())
+                && accepts(method.getParameterTypes(), array, args)) {
+                try {
+                    MethodHandle handle = MethodHandles.publicLookup().unreflect(method);
+                    handle = MethodHandles.insertArguments(handle, 1, args);
+                    return handle.asType(MethodType.methodType(void.class, Object.class));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        throw new IllegalArgumentException("no " + algorithm + " for " + array.getClass().getSimpleName());
+    }
+
+    /**
+     * this helper method checks whether a parameter list takes the array and
+     * then args, unboxing args for primitive parameters
+     * @param params the parameter types
+     * @param array the first argument
+     * @param args the remaining arguments
+     * @return true if every argument fits its parameter
+     */
+    private static boolean accepts(Class<?>[] params, Object array, Object[] args) {
+        if (params.length != args.length + 1 || !params[0].isInstance(array)) {
+            return false;
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (!MethodType.methodType(params[i + 1]).wrap().returnType().isInstance(args[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * this helper method loads a class of the default package
+     * @param name the name of the class
+     * @return the class
+     */
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package sorting;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * topK on int and Integer arrays, for a few values of k.
+ *
+ * @author Minkun Lei
+ * @version 1.0
+ * @userid mlei39
+ * @GTID 903705132
+ *
+ * Collaborators: none
+ * Resources: none
+ */
+public class TopKBenchmark extends InPlaceSortBenchmark {
+
+    @Param({"INT", "INTEGER"})
+    public ArrayType type;
+
+    @Param
+    public Distribution distribution;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"10", "500"})
+    public int k;
+
+    /**
+     * Generates the input and looks up the sort.
+     */
+    @Setup
+    public void setup() {
+        Object input = type.fill(distribution.generate(size, SEED));
+        Object[] args = type == ArrayType.INTEGER ? new Object[] {k, ArrayType.COMPARATOR} : new Object[] {k};
+        prepare(input, Sorters.find("topK", input, args));
+    }
+}